@@ -1,12 +1,14 @@
 package lib.kalu.adapter;
 
-import android.animation.Animator;
 import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.SparseIntArray;
 import android.view.LayoutInflater;
 import android.view.View;
+import android.view.ViewConfiguration;
 import android.view.ViewGroup;
-import android.view.animation.Interpolator;
-import android.view.animation.LinearInterpolator;
 import android.widget.FrameLayout;
 import android.widget.ImageView;
 import android.widget.LinearLayout;
@@ -20,23 +22,41 @@ import androidx.annotation.LayoutRes;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.StringRes;
+import androidx.core.view.ViewCompat;
+import androidx.recyclerview.widget.BatchingListUpdateCallback;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.GridLayoutManager;
+import androidx.recyclerview.widget.ListUpdateCallback;
 import androidx.recyclerview.widget.RecyclerView;
 import androidx.recyclerview.widget.StaggeredGridLayoutManager;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 import lib.kalu.adapter.animation.AlphaInAnimation;
 import lib.kalu.adapter.animation.BaseAnimation;
+import lib.kalu.adapter.animation.EntryAnimator;
 import lib.kalu.adapter.animation.ScaleInAnimation;
 import lib.kalu.adapter.animation.SlideInBottomAnimation;
 import lib.kalu.adapter.animation.SlideInLeftAnimation;
 import lib.kalu.adapter.animation.SlideInRightAnimation;
+import lib.kalu.adapter.callback.ItemDiffer;
+import lib.kalu.adapter.callback.ItemKeyProvider;
 import lib.kalu.adapter.holder.RecyclerHolder;
+import lib.kalu.adapter.manager.SpanCacheLookup;
+import lib.kalu.adapter.model.TransList;
 import lib.kalu.adapter.model.TransModel;
+import lib.kalu.adapter.pool.PreInflater;
+import lib.kalu.adapter.pool.RecyclerPoolManager;
 
 import static android.view.ViewGroup.LayoutParams.MATCH_PARENT;
 import static android.view.ViewGroup.LayoutParams.WRAP_CONTENT;
@@ -47,10 +67,56 @@ import static android.view.ViewGroup.LayoutParams.WRAP_CONTENT;
  */
 public abstract class BaseCommonAdapter<T> extends RecyclerView.Adapter<RecyclerHolder> {
 
-//    private final RecyclerView.RecycledViewPool pool = new RecyclerView.RecycledViewPool();
-
     protected static final String TAG = BaseCommonAdapter.class.getSimpleName();
-    private final Interpolator mInterpolator = new LinearInterpolator();
+    // 保留ID, 不会和数据key冲突
+    public static final long NULL_ID = Long.MIN_VALUE;
+    public static final long HEAD_ID = Long.MIN_VALUE + 1;
+    public static final long FOOT_ID = Long.MIN_VALUE + 2;
+    public static final long LOAD_ID = Long.MIN_VALUE + 3;
+    public static final long LEAD_ID = Long.MIN_VALUE + 4;
+    // 占位布局ID = PLACE_ID + 数据索引
+    public static final long PLACE_ID = Long.MIN_VALUE + 16;
+    // 差异比对线程
+    private static final Executor DIFF_EXECUTOR = Executors.newSingleThreadExecutor();
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+    // 数据提交版本号, 丢弃过期的比对结果
+    private int mSubmitGeneration = 0;
+    // 数据修改版本号, 比对期间数据被修改时不能再按比对结果刷新
+    private int mDataVersion = 0;
+    // 数据刷新, 自动偏移头部和前置加载布局
+    private final ListUpdateCallback mUpdateCallback = new ListUpdateCallback() {
+        @Override
+        public void onInserted(int position, int count) {
+            ++mDataVersion;
+            notifyItemRangeInserted(position + getModelStart(), count);
+            onModelInserted(position, count);
+        }
+
+        @Override
+        public void onRemoved(int position, int count) {
+            ++mDataVersion;
+            notifyItemRangeRemoved(position + getModelStart(), count);
+            onModelRemoved(position, count);
+        }
+
+        @Override
+        public void onMoved(int fromPosition, int toPosition) {
+            ++mDataVersion;
+            final int modelStart = getModelStart();
+            notifyItemMoved(fromPosition + modelStart, toPosition + modelStart);
+            onModelRemoved(fromPosition, 1);
+            onModelInserted(toPosition, 1);
+        }
+
+        @Override
+        public void onChanged(int position, int count, @Nullable Object payload) {
+            ++mDataVersion;
+            notifyItemRangeChanged(position + getModelStart(), count, payload);
+        }
+    };
+    // 批量刷新, 合并连续的增删改
+    private final BatchingListUpdateCallback mBatchCallback = new BatchingListUpdateCallback(mUpdateCallback);
+    private int mBatchDepth = 0;
     protected int mLastPosition = -1;
     // 布局ID
     protected LinearLayout mHeaderLayout, mFooterLayout;
@@ -59,9 +125,92 @@ public abstract class BaseCommonAdapter<T> extends RecyclerView.Adapter<Recycler
     private boolean isOpenAnimFirstOnly = true;
     // 显示动画
     private boolean isOpenAnim = false;
-    // 动画显示时间
-    private int mAnimTime = 300;
-    private BaseAnimation mSelectAnimation = new AlphaInAnimation();
+    // 入场动画, 每个holder复用一个ValueAnimator
+    private final EntryAnimator mEntryAnimator = new EntryAnimator();
+    // 超过该滑动速度(像素/秒)不执行动画, 关联列表时根据最大惯性速度计算
+    private int mAnimVelocity = Integer.MAX_VALUE;
+    // 同一帧显示多条时依次延迟, 0不延迟
+    private int mStaggerDelay = 0;
+    private int mStaggerMax = 0;
+    private int mStaggerIndex = 0;
+    // 当前帧的布局结束后重新计数
+    private final Runnable mStaggerReset = new Runnable() {
+        @Override
+        public void run() {
+            mStaggerIndex = 0;
+        }
+    };
+    // 数据唯一标识
+    private ItemKeyProvider<T> mKeyProvider;
+    // 预加载布局
+    private PreInflater mPreInflater;
+    // 共享缓存池
+    private boolean isSharePool = false;
+    private String mPoolKey;
+    // 每种布局当前显示数量, 最大显示数量
+    private final SparseIntArray mVisibleCount = new SparseIntArray();
+    private final SparseIntArray mPeakCount = new SparseIntArray();
+    // 位置分段表: 空布局 | 头部 | 前置加载布局 | 数据 | 脚部 | 加载布局, 结构变化时重建
+    private static final int TYPE_UNKNOWN = Integer.MIN_VALUE;
+    private boolean isSegmentDirty = true;
+    private int mSegmentNull, mSegmentHead, mSegmentLead, mSegmentModel, mSegmentFoot, mSegmentLoad, mSegmentCount;
+    // 数据布局类型缓存
+    private int[] mModelTypes = new int[0];
+    private int mAttachCount = 0;
+    // 网格列数缓存
+    private SpanCacheLookup mSpanLookup;
+    // 滑动监听
+    private boolean isScrollOffset = false;
+    private final ScrollListener mScrollListener = new ScrollListener();
+    private final RecyclerView.AdapterDataObserver mSegmentObserver = new RecyclerView.AdapterDataObserver() {
+        @Override
+        public void onChanged() {
+            isSegmentDirty = true;
+            if (null != mSpanLookup) {
+                mSpanLookup.invalidateAll();
+            }
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount) {
+            invalidateSpan(positionStart);
+
+            if (isSegmentDirty)
+                return;
+
+            // 只重置变化的数据类型
+            final int modelStart = mSegmentHead + mSegmentLead;
+            final int begin = Math.max(0, positionStart - modelStart);
+            final int end = Math.min(mSegmentModel, positionStart + itemCount - modelStart);
+            if (begin < end) {
+                Arrays.fill(mModelTypes, begin, end, TYPE_UNKNOWN);
+            }
+        }
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            isSegmentDirty = true;
+            invalidateSpan(positionStart);
+        }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            isSegmentDirty = true;
+            invalidateSpan(positionStart);
+        }
+
+        @Override
+        public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+            isSegmentDirty = true;
+            invalidateSpan(Math.min(fromPosition, toPosition));
+        }
+
+        private void invalidateSpan(int positionStart) {
+            if (null != mSpanLookup) {
+                mSpanLookup.invalidateFrom(positionStart);
+            }
+        }
+    };
 
     /***********************************       方法API       **************************************/
 
@@ -80,11 +229,13 @@ public abstract class BaseCommonAdapter<T> extends RecyclerView.Adapter<Recycler
     protected void setModelStyle(RecyclerView.ViewHolder holder, boolean isModel) {
 
         if (isModel) {
-            if (!isOpenAnim) return;
+            if (!isOpenAnim || !(holder instanceof RecyclerHolder)) return;
             if (!isOpenAnimFirstOnly || holder.getAdapterPosition() > mLastPosition) {
-                for (Animator anim : mSelectAnimation.getAnimators(holder.itemView)) {
-                    anim.setDuration(mAnimTime).start();
-                    anim.setInterpolator(mInterpolator);
+                // 快速滑动时不执行动画
+                if (mScrollListener.getVelocity() > mAnimVelocity) {
+                    mEntryAnimator.cancel((RecyclerHolder) holder);
+                } else {
+                    mEntryAnimator.start((RecyclerHolder) holder, nextStaggerDelay());
                 }
                 mLastPosition = holder.getAdapterPosition();
             }
@@ -103,13 +254,55 @@ public abstract class BaseCommonAdapter<T> extends RecyclerView.Adapter<Recycler
         }
     }
 
+    /**
+     * 数据为null时是否显示占位布局, 默认和原来一样调用onNext
+     */
+    protected boolean isPlaceEnabled() {
+        return false;
+    }
+
     protected boolean isModelType(int type) {
         return type != RecyclerHolder.HEAD_VIEW && type != RecyclerHolder.FOOT_VIEW && type != RecyclerHolder.NULL_VIEW;
     }
 
+    /**
+     * 布局类型对应的布局ID
+     *
+     * @param viewType 布局类型
+     */
+    protected @LayoutRes
+    int getLayoutId(int viewType) {
+        return onView();
+    }
+
     protected RecyclerHolder createHolder(@NonNull ViewGroup parent, @LayoutRes int resource, int viewType) {
-        View inflate = LayoutInflater.from(parent.getContext().getApplicationContext()).inflate(resource, parent, false);
-        return new RecyclerHolder(parent, inflate);
+        View inflate = (null == mPreInflater ? null : mPreInflater.take(viewType));
+        if (null == inflate) {
+            inflate = LayoutInflater.from(parent.getContext().getApplicationContext()).inflate(resource, parent, false);
+        }
+        RecyclerHolder holder = new RecyclerHolder(parent, inflate);
+        holder.cacheViews(onCache(viewType));
+        return holder;
+    }
+
+    /**
+     * 头部, 脚部, 空布局的内容可以被替换, 替换时清空控件缓存
+     */
+    private RecyclerHolder createLayoutHolder(@NonNull ViewGroup parent, @NonNull ViewGroup layout) {
+
+        final RecyclerHolder holder = new RecyclerHolder(parent, layout);
+        layout.setOnHierarchyChangeListener(new ViewGroup.OnHierarchyChangeListener() {
+            @Override
+            public void onChildViewAdded(View parent, View child) {
+                holder.clearViews();
+            }
+
+            @Override
+            public void onChildViewRemoved(View parent, View child) {
+                holder.clearViews();
+            }
+        });
+        return holder;
     }
 
     protected void onEvent(@NonNull RecyclerHolder holder, @NonNull ViewGroup parent, int viewType) {
@@ -120,73 +313,98 @@ public abstract class BaseCommonAdapter<T> extends RecyclerView.Adapter<Recycler
         // 事件绑定
         RecyclerView recyclerView = (RecyclerView) parent;
         onHolder(recyclerView.getLayoutManager(), holder, viewType);
+        holder.setOwner(this, recyclerView.getLayoutManager());
     }
 
     /***********************************       重写API       **************************************/
 
     @Override
     public long getItemId(int position) {
-        return position;
+
+        if (null == mKeyProvider)
+            return position;
+
+        switch (getItemViewType(position)) {
+            case RecyclerHolder.NULL_VIEW:
+                return NULL_ID;
+            case RecyclerHolder.HEAD_VIEW:
+                return HEAD_ID;
+            case RecyclerHolder.FOOT_VIEW:
+                return FOOT_ID;
+            case RecyclerHolder.LOAD_VIEW:
+                return LOAD_ID;
+            case RecyclerHolder.LEAD_VIEW:
+                return LEAD_ID;
+            case RecyclerHolder.PLACE_VIEW:
+                return PLACE_ID + position - mSegmentHead - mSegmentLead;
+            default:
+                final T model = getModel(position - mSegmentHead - mSegmentLead);
+                return null == model ? RecyclerView.NO_ID : mKeyProvider.getItemKey(model);
+        }
     }
 
     @Override
     public int getItemCount() {
-        final int size = onData().size();
-        return size == 0 ? getNullCount() : size + getNullCount() + getHeadCount() + getFootCount();
+        ensureSegment();
+        return mSegmentCount;
     }
 
     @Override
     public int getItemViewType(int position) {
+        ensureSegment();
 
         // 没有数据
-        if (null == onData() || onData().size() == 0) {
+        if (mSegmentModel == 0)
             return RecyclerHolder.NULL_VIEW;
-        }
-        // 有数据
-        else {
-            int numHead = getHeadCount();
-            if (position < numHead) {
-                return RecyclerHolder.HEAD_VIEW;
-            } else {
-                // 需要传递的索引位置
-                int realPosition = position - numHead;
-                int numModel = onData().size();
-                return realPosition < numModel ? getItemModelType(realPosition) : RecyclerHolder.FOOT_VIEW;
+
+        // 头部
+        if (position < mSegmentHead)
+            return RecyclerHolder.HEAD_VIEW;
+
+        // 前置加载布局
+        if (position < mSegmentHead + mSegmentLead)
+            return RecyclerHolder.LEAD_VIEW;
+
+        // 数据
+        int index = position - mSegmentHead - mSegmentLead;
+        if (index < mSegmentModel) {
+            int type = mModelTypes[index];
+            if (type == TYPE_UNKNOWN) {
+                type = null == onData().get(index) && isPlaceEnabled() ? RecyclerHolder.PLACE_VIEW : getItemModelType(index);
+                mModelTypes[index] = type;
             }
+            return type;
         }
+
+        // 脚部, 加载布局
+        index -= mSegmentModel;
+        return index < mSegmentFoot ? RecyclerHolder.FOOT_VIEW : RecyclerHolder.LOAD_VIEW;
     }
 
     @Override
     public RecyclerHolder onCreateViewHolder(ViewGroup parent, int viewType) {
 
-        // 添加缓存池
-//        RecyclerView recyclerView = (RecyclerView) parent;
-//        if (null == recyclerView.getRecycledViewPool()) {
-//            Log.e("BaseCommonAdapter", "onCreateViewHolder => 添加缓存池");
-//            recyclerView.setRecycledViewPool(pool);
-//        }
-
         // 空布局
         if (viewType == RecyclerHolder.NULL_VIEW) {
-            RecyclerHolder holder = new RecyclerHolder(parent, mEmptyLayout);
+            RecyclerHolder holder = createLayoutHolder(parent, mEmptyLayout);
             onEvent(holder, parent, viewType);
             return holder;
         }
         // 头
         else if (viewType == RecyclerHolder.HEAD_VIEW) {
-            RecyclerHolder holder = new RecyclerHolder(parent, mHeaderLayout);
+            RecyclerHolder holder = createLayoutHolder(parent, mHeaderLayout);
             onEvent(holder, parent, viewType);
             return holder;
         }
         // 脚
         else if (viewType == RecyclerHolder.FOOT_VIEW) {
-            RecyclerHolder holder = new RecyclerHolder(parent, mFooterLayout);
+            RecyclerHolder holder = createLayoutHolder(parent, mFooterLayout);
             onEvent(holder, parent, viewType);
             return holder;
         }
         // 孩子
         else {
-            RecyclerHolder holder = createHolder(parent, onView(), viewType);
+            RecyclerHolder holder = createHolder(parent, getLayoutId(viewType), viewType);
             onEvent(holder, parent, viewType);
             return holder;
         }
@@ -198,14 +416,35 @@ public abstract class BaseCommonAdapter<T> extends RecyclerView.Adapter<Recycler
         if (null == holder)
             return;
 
-        if (holder.getItemViewType() == RecyclerHolder.HEAD_VIEW || holder.getItemViewType() == RecyclerHolder.NULL_VIEW || holder.getItemViewType() == RecyclerHolder.FOOT_VIEW)
+        if (holder.getItemViewType() == RecyclerHolder.HEAD_VIEW || holder.getItemViewType() == RecyclerHolder.NULL_VIEW || holder.getItemViewType() == RecyclerHolder.FOOT_VIEW || holder.getItemViewType() == RecyclerHolder.PLACE_VIEW)
             return;
 
         // 赋值
-        int realPosition = holder.getBindingAdapterPosition() - getHeadCount();
+        int realPosition = getModelIndex(position);
+        if (realPosition == -1)
+            return;
         onNext(holder, onData().get(realPosition), position);
     }
 
+    @Override
+    public void onBindViewHolder(@NonNull RecyclerHolder holder, int position, @NonNull List<Object> payloads) {
+
+        // 没有局部刷新标记, 整条刷新
+        if (null == payloads || payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+
+        final int type = holder.getItemViewType();
+        final int realPosition = getModelIndex(position);
+        if (type == RecyclerHolder.PLACE_VIEW || !isModelType(type) || realPosition == -1) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+
+        onNextPartial(holder, onData().get(realPosition), position, payloads);
+    }
+
     /**
      * 回收itemview
      *
@@ -215,6 +454,18 @@ public abstract class BaseCommonAdapter<T> extends RecyclerView.Adapter<Recycler
     public void onViewDetachedFromWindow(@NonNull RecyclerHolder holder) {
         super.onViewDetachedFromWindow(holder);
         // Log.e("basecommonadapter", "onViewDetachedFromWindow =>");
+
+        if (null == holder)
+            return;
+
+        // 滑出屏幕, 取消还没执行完的入场动画
+        mEntryAnimator.cancel(holder);
+
+        if (null == mPoolKey)
+            return;
+
+        final int type = holder.getItemViewType();
+        mVisibleCount.put(type, Math.max(0, mVisibleCount.get(type) - 1));
     }
 
     /**
@@ -230,7 +481,32 @@ public abstract class BaseCommonAdapter<T> extends RecyclerView.Adapter<Recycler
         if (null == holder)
             return;
 
-        setModelStyle(holder, holder.getItemViewType() != RecyclerHolder.NULL_VIEW);
+        final int type = holder.getItemViewType();
+        final boolean isModel = isModelType(type) && type != RecyclerHolder.PLACE_VIEW;
+
+        // 共享缓存池: holder由其他适配器或LayoutManager创建时重新绑定事件
+        final RecyclerView recyclerView = holder.getRecyclerView();
+        if (isSharePool && isModel && null != recyclerView && !holder.isOwner(this, recyclerView.getLayoutManager())) {
+            onEvent(holder, recyclerView, type);
+        }
+
+        setModelStyle(holder, isModel);
+        updatePeak(holder);
+    }
+
+    /**
+     * 回收holder, 取消入场动画
+     *
+     * @param holder
+     */
+    @Override
+    public void onViewRecycled(@NonNull RecyclerHolder holder) {
+        super.onViewRecycled(holder);
+
+        if (null == holder)
+            return;
+
+        mEntryAnimator.cancel(holder);
     }
 
     @Override
@@ -238,7 +514,22 @@ public abstract class BaseCommonAdapter<T> extends RecyclerView.Adapter<Recycler
         // Log.e("basecommonadapter", "onDetachedFromRecyclerView =>");
         if (null != recyclerView) {
             // Log.e("basecommonadapter", "onDetachedFromRecyclerView => 移除滑动监听");
-            recyclerView.clearOnScrollListeners();
+            recyclerView.removeOnScrollListener(mScrollListener);
+            mScrollListener.cancel(recyclerView);
+        }
+
+        // 分段表
+        if (mAttachCount > 0 && --mAttachCount == 0) {
+            unregisterAdapterDataObserver(mSegmentObserver);
+            mSpanLookup = null;
+        }
+
+        // 释放共享缓存池
+        if (null != mPoolKey) {
+            RecyclerPoolManager.getInstance(recyclerView.getContext()).release(mPoolKey);
+            recyclerView.setRecycledViewPool(null);
+            mPoolKey = null;
+            mVisibleCount.clear();
         }
         super.onDetachedFromRecyclerView(recyclerView);
     }
@@ -251,50 +542,51 @@ public abstract class BaseCommonAdapter<T> extends RecyclerView.Adapter<Recycler
         if (null == recyclerView)
             return;
 
-        // 滑动监听
-        // Log.e("basecommonadapter", "onAttachedToRecyclerView => 添加滑动监听");
-        recyclerView.clearOnScrollListeners();
-        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
-            @Override
-            public void onScrollStateChanged(@NonNull RecyclerView recyclerView, int newState) {
-                super.onScrollStateChanged(recyclerView, newState);
-
-                // Log.e("basecommonadapter", "onScrollStateChanged => newState = " + newState);
-                onState(newState != 0);
-            }
-
-            @Override
-            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
-                super.onScrolled(recyclerView, dx, dy);
-
-                if (null == recyclerView)
-                    return;
+        // 入场动画速度阈值: 最大惯性速度的1/4
+        if (mAnimVelocity == Integer.MAX_VALUE) {
+            mAnimVelocity = ViewConfiguration.get(recyclerView.getContext()).getScaledMaximumFlingVelocity() / 4;
+        }
 
-                // 如果是垂直滑动，获取垂直滑动距离
-                int verticalOffset = recyclerView.computeVerticalScrollOffset();
-                // 如果是水平滑动，获取水平滑动距离
-                int horizontalOffset = recyclerView.computeHorizontalScrollOffset();
+        // 分段表, 结构变化时重建
+        isSegmentDirty = true;
+        if (mAttachCount++ == 0) {
+            registerAdapterDataObserver(mSegmentObserver);
+        }
 
-                // Log.e("basecommonadapter", "onScrolled => horizontalOffset = " + horizontalOffset + ", verticalOffset = " + verticalOffset);
-                onScroll(horizontalOffset, verticalOffset);
+        // 共享缓存池
+        if (isSharePool && null == mPoolKey) {
+            mPoolKey = getPoolKey();
+            final RecyclerPoolManager manager = RecyclerPoolManager.getInstance(recyclerView.getContext());
+            recyclerView.setRecycledViewPool(manager.obtain(mPoolKey));
+            for (int i = 0; i < mPeakCount.size(); i++) {
+                manager.updatePeak(mPoolKey, mPeakCount.keyAt(i), mPeakCount.valueAt(i));
             }
-        });
+        }
+
+        // 滑动监听, 只移除自己的监听, 不影响外部添加的监听
+        // Log.e("basecommonadapter", "onAttachedToRecyclerView => 添加滑动监听");
+        recyclerView.removeOnScrollListener(mScrollListener);
+        recyclerView.addOnScrollListener(mScrollListener);
 
         RecyclerView.LayoutManager manager = recyclerView.getLayoutManager();
         if (!(manager instanceof GridLayoutManager))
             return;
 
-        // 网格布局
+        // 网格布局, 缓存列索引和行索引, 数据变化时只清除变化位置之后的缓存
         final GridLayoutManager gridManager = ((GridLayoutManager) manager);
-        gridManager.setSpanSizeLookup(new GridLayoutManager.SpanSizeLookup() {
+        mSpanLookup = new SpanCacheLookup() {
             @Override
             public int getSpanSize(int position) {
 
                 int type = getItemViewType(position);
+                if (type == RecyclerHolder.PLACE_VIEW)
+                    return 1;
+
                 boolean modelType = isModelType(type);
-                return modelType ? onMerge(position - getHeadCount()) : gridManager.getSpanCount();
+                return modelType ? onMerge(getModelIndex(position)) : gridManager.getSpanCount();
             }
-        });
+        };
+        gridManager.setSpanSizeLookup(mSpanLookup);
     }
 
     /***********************************       重写API       **************************************/
@@ -302,54 +594,300 @@ public abstract class BaseCommonAdapter<T> extends RecyclerView.Adapter<Recycler
     public final void setLoadAnimation(@AnimationType int animationType, int animTime, boolean isOpenAnimFirstOnly) {
         this.isOpenAnim = true;
         this.isOpenAnimFirstOnly = isOpenAnimFirstOnly;
-        this.mAnimTime = animTime;
+        mEntryAnimator.setDuration(animTime);
 
         switch (animationType) {
             case BaseAnimation.ALPHAIN:
-                mSelectAnimation = new AlphaInAnimation();
+                mEntryAnimator.setAnimation(new AlphaInAnimation());
                 break;
             case BaseAnimation.SCALEIN:
-                mSelectAnimation = new ScaleInAnimation();
+                mEntryAnimator.setAnimation(new ScaleInAnimation());
                 break;
             case BaseAnimation.SLIDEIN_BOTTOM:
-                mSelectAnimation = new SlideInBottomAnimation();
+                mEntryAnimator.setAnimation(new SlideInBottomAnimation());
                 break;
             case BaseAnimation.SLIDEIN_LEFT:
-                mSelectAnimation = new SlideInLeftAnimation();
+                mEntryAnimator.setAnimation(new SlideInLeftAnimation());
                 break;
             case BaseAnimation.SLIDEIN_RIGHT:
-                mSelectAnimation = new SlideInRightAnimation();
+                mEntryAnimator.setAnimation(new SlideInRightAnimation());
                 break;
             default:
                 break;
         }
     }
 
+    /**
+     * 入场动画的滑动速度阈值, 超过该速度显示的条目不执行动画
+     *
+     * @param velocity 像素/秒, 默认最大惯性速度的1/4
+     */
+    public final void setAnimVelocity(int velocity) {
+        this.mAnimVelocity = velocity;
+    }
+
+    /**
+     * 同一帧显示多条时, 依次延迟开始入场动画
+     *
+     * @param delay    每条延迟时间, 0不延迟
+     * @param maxCount 最多延迟的条数, 之后的条目和最后一条同时开始
+     */
+    public final void setAnimStagger(int delay, int maxCount) {
+        this.mStaggerDelay = Math.max(0, delay);
+        this.mStaggerMax = Math.max(0, maxCount);
+    }
+
+    /**
+     * 当前帧第几条显示, 计算延迟时间
+     */
+    private long nextStaggerDelay() {
+
+        if (mStaggerDelay == 0)
+            return 0;
+
+        // 同一帧内依次显示的条目为一组, 第一条时发送重置消息, 在本帧布局之后执行
+        if (mStaggerIndex == 0) {
+            mMainHandler.post(mStaggerReset);
+        }
+
+        final long delay = (long) Math.min(mStaggerIndex, mStaggerMax) * mStaggerDelay;
+        ++mStaggerIndex;
+        return delay;
+    }
+
+    /**
+     * 自定义入场动画
+     *
+     * @param animation           动画
+     * @param animTime            动画时间
+     * @param isOpenAnimFirstOnly 是否仅仅第一次显示时执行动画
+     */
+    public final void setLoadAnimation(@NonNull BaseAnimation animation, int animTime, boolean isOpenAnimFirstOnly) {
+        this.isOpenAnim = true;
+        this.isOpenAnimFirstOnly = isOpenAnimFirstOnly;
+        mEntryAnimator.setDuration(animTime);
+        mEntryAnimator.setAnimation(animation);
+    }
+
+    /***********************************       预加载API      **************************************/
+
+    /**
+     * 后台预加载布局, 首次滑动到该类型时不用在主线程inflate
+     *
+     * @param recyclerView 列表
+     * @param viewType     布局类型
+     * @param count        期望缓存数量
+     */
+    public final void setPreInflate(@NonNull RecyclerView recyclerView, int viewType, int count) {
+
+        if (null == recyclerView)
+            return;
+
+        // 头部, 脚部, 空布局, 加载布局不需要预加载
+        if (viewType == RecyclerHolder.NULL_VIEW || viewType == RecyclerHolder.HEAD_VIEW || viewType == RecyclerHolder.FOOT_VIEW || viewType == RecyclerHolder.LOAD_VIEW || viewType == RecyclerHolder.LEAD_VIEW || viewType == RecyclerHolder.PLACE_VIEW)
+            return;
+
+        if (null == mPreInflater) {
+            mPreInflater = new PreInflater();
+        }
+        mPreInflater.inflate(recyclerView, viewType, getLayoutId(viewType), count);
+    }
+
+    /**
+     * 清空预加载布局
+     */
+    public final void clearPreInflate() {
+
+        if (null == mPreInflater)
+            return;
+        mPreInflater.clear();
+    }
+
+    /***********************************       滑动API       **************************************/
+
+    /**
+     * 是否计算滑动距离(onScroll), 默认关闭
+     * <p>
+     * 只计算LayoutManager可以滑动的方向, 每帧最多计算一次
+     *
+     * @param enable 是否计算
+     */
+    public final void setScrollOffsetEnabled(boolean enable) {
+        this.isScrollOffset = enable;
+    }
+
+    private final class ScrollListener extends RecyclerView.OnScrollListener implements Runnable {
+
+        // 等待下一帧计算滑动距离
+        private RecyclerView mPending;
+        // 滑动速度, 像素/秒
+        private float mVelocity;
+        private long mScrollTime;
+
+        @Override
+        public void onScrollStateChanged(@NonNull RecyclerView recyclerView, int newState) {
+            super.onScrollStateChanged(recyclerView, newState);
+
+            if (newState == RecyclerView.SCROLL_STATE_IDLE) {
+                mVelocity = 0;
+            }
+
+            // Log.e("basecommonadapter", "onScrollStateChanged => newState = " + newState);
+            onState(newState != RecyclerView.SCROLL_STATE_IDLE);
+        }
+
+        @Override
+        public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+            super.onScrolled(recyclerView, dx, dy);
+
+            // 估算滑动速度, 超过100ms没有滑动视为重新开始
+            final long now = SystemClock.uptimeMillis();
+            final long duration = now - mScrollTime;
+            mScrollTime = now;
+            if (duration <= 0 || duration > 100) {
+                mVelocity = 0;
+            } else {
+                final float velocity = Math.max(Math.abs(dx), Math.abs(dy)) * 1000f / duration;
+                mVelocity = (mVelocity + velocity) / 2;
+            }
+
+            if (!isScrollOffset || null == recyclerView || null != mPending)
+                return;
+
+            mPending = recyclerView;
+            ViewCompat.postOnAnimation(recyclerView, this);
+        }
+
+        @Override
+        public void run() {
+
+            final RecyclerView recyclerView = mPending;
+            mPending = null;
+            if (null == recyclerView)
+                return;
+
+            final RecyclerView.LayoutManager manager = recyclerView.getLayoutManager();
+            if (null == manager)
+                return;
+
+            // 如果是垂直滑动，获取垂直滑动距离
+            int verticalOffset = manager.canScrollVertically() ? recyclerView.computeVerticalScrollOffset() : 0;
+            // 如果是水平滑动，获取水平滑动距离
+            int horizontalOffset = manager.canScrollHorizontally() ? recyclerView.computeHorizontalScrollOffset() : 0;
+
+            // Log.e("basecommonadapter", "onScrolled => horizontalOffset = " + horizontalOffset + ", verticalOffset = " + verticalOffset);
+            onScroll(horizontalOffset, verticalOffset);
+        }
+
+        private void cancel(@NonNull RecyclerView recyclerView) {
+            recyclerView.removeCallbacks(this);
+            mPending = null;
+            mVelocity = 0;
+        }
+
+        private float getVelocity() {
+            return mVelocity;
+        }
+    }
+
+    /***********************************       缓存池API      **************************************/
+
+    /**
+     * 共享缓存池, 相同适配器和布局的列表共用一个RecycledViewPool
+     * <p>
+     * 1.必须在RecyclerView.setAdapter之前调用
+     * 2.holder被其他适配器或LayoutManager复用时, 显示前重新调用onHolder绑定事件
+     *
+     * @param share 是否共享
+     */
+    public final void setSharePool(boolean share) {
+        this.isSharePool = share;
+    }
+
+    /**
+     * 共享缓存池的key, 默认: 适配器类名 + 布局ID
+     */
+    protected @NonNull
+    String getPoolKey() {
+        return getClass().getName() + ":" + onView();
+    }
+
+    /**
+     * 布局类型的缓存数量
+     *
+     * @param viewType 布局类型
+     * @return -1: 根据最大显示数量自动调整
+     */
+    protected int getPoolSize(int viewType) {
+        return -1;
+    }
+
+    private void updatePeak(@NonNull RecyclerHolder holder) {
+
+        if (null == mPoolKey)
+            return;
+
+        final int type = holder.getItemViewType();
+        if (getPoolSize(type) != -1)
+            return;
+
+        final int visible = mVisibleCount.get(type) + 1;
+        mVisibleCount.put(type, visible);
+
+        if (visible <= mPeakCount.get(type))
+            return;
+
+        mPeakCount.put(type, visible);
+        final RecyclerView recyclerView = holder.getRecyclerView();
+        if (null == recyclerView)
+            return;
+        RecyclerPoolManager.getInstance(recyclerView.getContext()).updatePeak(mPoolKey, type, visible);
+    }
+
+    /***********************************       稳定ID API     **************************************/
+
+    /**
+     * 设置数据唯一标识, 开启稳定ID
+     * <p>
+     * 必须在RecyclerView.setAdapter之前调用
+     *
+     * @param provider null关闭稳定ID
+     */
+    public final void setItemKeyProvider(@Nullable ItemKeyProvider<T> provider) {
+        this.mKeyProvider = provider;
+        setHasStableIds(null != provider);
+    }
+
+    public final @Nullable
+    ItemKeyProvider<T> getItemKeyProvider() {
+        return mKeyProvider;
+    }
+
     /***********************************       展开API       **************************************/
 
     public void expand(@IntRange(from = 0) int position, boolean animate) {
-        position -= getHeadCount();
+        position -= getModelStart();
+
+        // 树状索引
+        if (onData() instanceof TransList) {
+            final int count = ((TransList<T>) onData()).expand(position);
+            notifyTrans(position + 1, count, true, animate);
+            return;
+        }
 
         final T model = getModel(position);
         if (null == model || !(model instanceof TransModel)) return;
 
         TransModel trans = (TransModel) model;
-        if (trans.isExpanded()) return;
+        if (trans.isExpanded() || !trans.hasModel()) return;
 
-        final List tempList = trans.getModelList();
-        if (null == tempList || tempList.size() == 0) return;
-
-        // 需要展开
+        // 需要展开, 已展开的子节点一起显示
         trans.setExpanded(true);
-        final int tempSize = tempList.size();
+        final List<T> tempList = new ArrayList<>();
+        flatten(trans, tempList);
         final int tempBegin = position + 1;
         onData().addAll(tempBegin, tempList);
-
-        if (animate) {
-            notifyItemRangeInserted(tempBegin, tempSize);
-        } else {
-            notifyDataSetChanged();
-        }
+        notifyTrans(tempBegin, tempList.size(), true, animate);
     }
 
     public void expand(@IntRange(from = 0) int position) {
@@ -357,15 +895,54 @@ public abstract class BaseCommonAdapter<T> extends RecyclerView.Adapter<Recycler
     }
 
     public void expandAll() {
-        for (int i = onData().size() - 1; i >= 0 + getHeadCount(); i--) {
-            expand(i, true);
+        expandAll(Integer.MAX_VALUE);
+    }
+
+    /**
+     * 全部展开到指定层级, 一次遍历重建列表, 合并刷新通知
+     *
+     * @param maxLevel getLevel() < maxLevel的节点展开, 其他节点折叠
+     */
+    public void expandAll(int maxLevel) {
+
+        final List<T> data = onData();
+        if (data.isEmpty()) return;
+
+        // 树状索引
+        if (data instanceof TransList) {
+            final TransList<T> list = (TransList<T>) data;
+            final List<T> oldList = list.snapshot();
+            list.expandAll(maxLevel);
+            notifyTrans(oldList, list.snapshot());
+            return;
         }
+
+        // 根节点: 跳过已显示的子孙节点
+        final List<T> oldList = new ArrayList<>(data);
+        final List<T> newList = new ArrayList<>(oldList.size());
+        int i = 0;
+        while (i < oldList.size()) {
+            final T root = oldList.get(i);
+            i += 1 + ((root instanceof TransModel) ? countVisible((TransModel) root) : 0);
+            expandTo(root, maxLevel, newList);
+        }
+
+        data.clear();
+        data.addAll(newList);
+        notifyTrans(oldList, newList);
     }
 
     /***********************************       折叠API       **************************************/
 
     public void collapse(@IntRange(from = 0) int position, boolean animate) {
-        position -= getHeadCount();
+        position -= getModelStart();
+
+        // 树状索引
+        if (onData() instanceof TransList) {
+            final int count = ((TransList<T>) onData()).collapse(position);
+            notifyTrans(position + 1, count, false, animate);
+            return;
+        }
 
         final T model = getModel(position);
         if (null == model || !(model instanceof TransModel)) return;
@@ -373,22 +950,12 @@ public abstract class BaseCommonAdapter<T> extends RecyclerView.Adapter<Recycler
         TransModel trans = (TransModel) model;
         if (!trans.isExpanded()) return;
 
-        final List<T> tempList = trans.getModelList();
-        if (null == tempList || tempList.size() == 0) return;
-
-        // 需要折叠
-        trans.setExpanded(false);
-        final int tempSize = tempList.size();
+        // 需要折叠, 子节点一起折叠, 一次性删除
+        final int tempSize = countVisible(trans);
         final int tempBegin = position + 1;
-        for (int i = 0; i < tempSize; i++) {
-            onData().remove(tempBegin);
-        }
-
-        if (animate) {
-            notifyItemRangeRemoved(tempBegin, tempSize);
-        } else {
-            notifyDataSetChanged();
-        }
+        collapseChild(trans);
+        onData().subList(tempBegin, tempBegin + tempSize).clear();
+        notifyTrans(tempBegin, tempSize, false, animate);
     }
 
     public void collapse(@IntRange(from = 0) int position) {
@@ -396,8 +963,120 @@ public abstract class BaseCommonAdapter<T> extends RecyclerView.Adapter<Recycler
     }
 
     public void collapseAll() {
-        for (int i = onData().size() - 1; i >= 0 + getHeadCount(); i--) {
-            collapse(i, true);
+        expandAll(0);
+    }
+
+    /**
+     * 设置展开状态, 并添加显示的节点(先序)
+     */
+    private void expandTo(T model, int maxLevel, @NonNull List<T> out) {
+
+        out.add(model);
+        if (!(model instanceof TransModel)) return;
+
+        final TransModel trans = (TransModel) model;
+        final boolean expand = trans.getLevel() < maxLevel && trans.hasModel();
+        trans.setExpanded(expand);
+        if (!expand) return;
+
+        final List<T> list = trans.getModelList();
+        for (T child : list) {
+            expandTo(child, maxLevel, out);
+        }
+    }
+
+    /**
+     * 展开后显示的子孙节点(先序)
+     */
+    private void flatten(@NonNull TransModel trans, @NonNull List<T> out) {
+
+        final List<T> list = trans.getModelList();
+        if (null == list) return;
+
+        for (T child : list) {
+            out.add(child);
+            if (child instanceof TransModel && ((TransModel) child).isExpanded()) {
+                flatten((TransModel) child, out);
+            }
+        }
+    }
+
+    /**
+     * 当前显示的子孙节点数量
+     */
+    private int countVisible(@NonNull TransModel trans) {
+
+        if (!trans.isExpanded()) return 0;
+
+        final List list = trans.getModelList();
+        if (null == list) return 0;
+
+        int count = list.size();
+        for (Object child : list) {
+            if (child instanceof TransModel) {
+                count += countVisible((TransModel) child);
+            }
+        }
+        return count;
+    }
+
+    private void collapseChild(@NonNull TransModel trans) {
+
+        trans.setExpanded(false);
+        final List list = trans.getModelList();
+        if (null == list) return;
+
+        for (Object child : list) {
+            if (child instanceof TransModel) {
+                collapseChild((TransModel) child);
+            }
+        }
+    }
+
+    /**
+     * 新旧列表都是同一棵树的先序遍历, 相同节点顺序不变, 一次遍历得到增删, 合并刷新通知
+     */
+    private void notifyTrans(@NonNull List<T> oldList, @NonNull List<T> newList) {
+
+        if (oldList.isEmpty() || newList.isEmpty()) {
+            notifyModelChanged();
+            return;
+        }
+
+        final Set<Object> newSet = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+        newSet.addAll(newList);
+
+        beginBatch();
+        final ListUpdateCallback callback = getUpdateCallback();
+        final int oldSize = oldList.size();
+        final int newSize = newList.size();
+        int i = 0;
+        int j = 0;
+        while (i < oldSize || j < newSize) {
+            if (i < oldSize && j < newSize && oldList.get(i) == newList.get(j)) {
+                ++i;
+                ++j;
+            } else if (i < oldSize && !newSet.contains(oldList.get(i))) {
+                callback.onRemoved(j, 1);
+                ++i;
+            } else {
+                callback.onInserted(j, 1);
+                ++j;
+            }
+        }
+        endBatch();
+    }
+
+    private void notifyTrans(int index, int count, boolean insert, boolean animate) {
+
+        if (count <= 0) return;
+
+        if (!animate) {
+            notifyModelChanged();
+        } else if (insert) {
+            getUpdateCallback().onInserted(index, count);
+        } else {
+            getUpdateCallback().onRemoved(index, count);
         }
     }
 
@@ -407,6 +1086,15 @@ public abstract class BaseCommonAdapter<T> extends RecyclerView.Adapter<Recycler
 
         if (null == item || null == onData() || onData().isEmpty()) return -1;
 
+        // 树状索引
+        if (onData() instanceof TransList) {
+            final TransList<T> list = (TransList<T>) onData();
+            final int position = list.positionOf(item);
+            if (position == -1) return -1;
+            final int parent = list.getParentPosition(position);
+            return parent == -1 ? position : parent;
+        }
+
         int position = onData().indexOf(item);
         if (position == -1) return -1;
 
@@ -434,6 +1122,80 @@ public abstract class BaseCommonAdapter<T> extends RecyclerView.Adapter<Recycler
         return viewHolder.getView(viewId);
     }
 
+    /***********************************       分段API       **************************************/
+
+    /**
+     * 加载布局数量, 有数据时显示在脚部之后
+     */
+    protected int getLoadCount() {
+        return 0;
+    }
+
+    /**
+     * 前置加载布局数量, 有数据时显示在头部之后, 数据之前
+     */
+    protected int getLeadCount() {
+        return 0;
+    }
+
+    /**
+     * 第一条数据的列表位置 = 头部 + 前置加载布局
+     */
+    protected final int getModelStart() {
+        return getHeadCount() + getLeadCount();
+    }
+
+    /**
+     * 列表位置对应的数据索引
+     *
+     * @param position 列表位置
+     * @return 不是数据返回-1
+     */
+    public final int getModelIndex(int position) {
+        ensureSegment();
+        final int index = position - mSegmentHead - mSegmentLead;
+        return (index >= 0 && index < mSegmentModel) ? index : -1;
+    }
+
+    /**
+     * 头部, 脚部, 空布局, 加载布局数量变化时调用
+     */
+    protected final void invalidateSegment() {
+        isSegmentDirty = true;
+        if (null != mSpanLookup) {
+            mSpanLookup.invalidateAll();
+        }
+    }
+
+    private void ensureSegment() {
+
+        final int size = onData().size();
+        if (!isSegmentDirty && size == mSegmentModel)
+            return;
+
+        isSegmentDirty = false;
+        mSegmentModel = size;
+        if (size == 0) {
+            mSegmentNull = getNullCount();
+            mSegmentHead = 0;
+            mSegmentLead = 0;
+            mSegmentFoot = 0;
+            mSegmentLoad = 0;
+        } else {
+            mSegmentNull = 0;
+            mSegmentHead = getHeadCount();
+            mSegmentLead = getLeadCount();
+            mSegmentFoot = getFootCount();
+            mSegmentLoad = getLoadCount();
+        }
+        mSegmentCount = mSegmentNull + mSegmentHead + mSegmentLead + mSegmentModel + mSegmentFoot + mSegmentLoad;
+
+        if (mModelTypes.length < size) {
+            mModelTypes = new int[Math.max(size, mModelTypes.length * 2)];
+        }
+        Arrays.fill(mModelTypes, 0, size, TYPE_UNKNOWN);
+    }
+
     /***********************************       头部API       **************************************/
 
     private int getHeadPosition() {
@@ -492,6 +1254,7 @@ public abstract class BaseCommonAdapter<T> extends RecyclerView.Adapter<Recycler
             index = childCount;
         }
         mHeaderLayout.addView(header, index);
+        invalidateSegment();
         if (mHeaderLayout.getChildCount() == 1) {
             int position = getHeadPosition();
             if (position != -1) {
@@ -521,6 +1284,7 @@ public abstract class BaseCommonAdapter<T> extends RecyclerView.Adapter<Recycler
         if (getHeadCount() == 0) return;
 
         mHeaderLayout.removeView(header);
+        invalidateSegment();
         if (mHeaderLayout.getChildCount() == 0) {
             int position = getHeadPosition();
             if (position != -1) {
@@ -533,6 +1297,7 @@ public abstract class BaseCommonAdapter<T> extends RecyclerView.Adapter<Recycler
         if (getHeadCount() == 0) return;
 
         mHeaderLayout.removeAllViews();
+        invalidateSegment();
         int position = getHeadPosition();
         if (position != -1) {
             notifyItemRemoved(position);
@@ -546,11 +1311,7 @@ public abstract class BaseCommonAdapter<T> extends RecyclerView.Adapter<Recycler
         final int footCount = getFootCount();
         if (footCount != 1) return -1;
 
-        final int headCount = getHeadCount();
-        if (headCount == 1) {
-            return getHeadCount() + onData().size();
-        }
-        return onData().size();
+        return getModelStart() + onData().size();
     }
 
     public int getFootCount() {
@@ -599,6 +1360,7 @@ public abstract class BaseCommonAdapter<T> extends RecyclerView.Adapter<Recycler
             index = childCount;
         }
         mFooterLayout.addView(footer, index);
+        invalidateSegment();
         if (mFooterLayout.getChildCount() == 1) {
             int position = getFootPosition();
             if (position != -1) {
@@ -628,6 +1390,7 @@ public abstract class BaseCommonAdapter<T> extends RecyclerView.Adapter<Recycler
         if (getFootCount() == 0) return;
 
         mFooterLayout.removeView(footer);
+        invalidateSegment();
         if (mFooterLayout.getChildCount() == 0) {
             int position = getFootPosition();
             if (position != -1) {
@@ -640,6 +1403,7 @@ public abstract class BaseCommonAdapter<T> extends RecyclerView.Adapter<Recycler
         if (getFootCount() == 0) return;
 
         mFooterLayout.removeAllViews();
+        invalidateSegment();
         int position = getFootPosition();
         if (position != -1) {
             notifyItemRemoved(position);
@@ -680,6 +1444,7 @@ public abstract class BaseCommonAdapter<T> extends RecyclerView.Adapter<Recycler
         mEmptyParams.height = RecyclerView.LayoutParams.MATCH_PARENT;
         mEmptyLayout.removeAllViews();
         mEmptyLayout.addView(emptyView);
+        invalidateSegment();
 
         final int nullCount = getNullCount();
         if (nullCount != 1)
@@ -696,6 +1461,7 @@ public abstract class BaseCommonAdapter<T> extends RecyclerView.Adapter<Recycler
 
         if (null == mEmptyLayout) return;
         mEmptyLayout.removeAllViews();
+        invalidateSegment();
         mEmptyLayout.setVisibility(View.GONE);
     }
 
@@ -739,34 +1505,228 @@ public abstract class BaseCommonAdapter<T> extends RecyclerView.Adapter<Recycler
 
     public void clearInsertData(@Nullable List<T> data) {
 
+        // 丢弃未完成的比对
+        ++mSubmitGeneration;
         onData().clear();
         mLastPosition = -1;
-        onData().addAll(data);
-        notifyDataSetChanged();
+        if (null != data) {
+            onData().addAll(data);
+        }
+        notifyModelChanged();
+    }
+
+    /**
+     * 后台线程比对差异, 主线程替换数据并局部刷新
+     * <p>
+     * 比对期间通过addData, remove, setData, 展开折叠等修改了数据时, 比对结果已经过期, 替换数据后整体刷新
+     *
+     * @param data   新数据
+     * @param differ 差异比对
+     */
+    public void submitData(@Nullable List<T> data, @NonNull final ItemDiffer<T> differ) {
+
+        final int generation = ++mSubmitGeneration;
+        final int version = ++mDataVersion;
+        final List<T> newList = (null == data ? Collections.<T>emptyList() : new ArrayList<>(data));
+        final List<T> oldList = new ArrayList<>(onData());
+
+        // 空布局切换, 整体刷新
+        if (oldList.isEmpty() || newList.isEmpty()) {
+            onData().clear();
+            onData().addAll(newList);
+            notifyModelChanged();
+            return;
+        }
+
+        DIFF_EXECUTOR.execute(new Runnable() {
+            @Override
+            public void run() {
+
+                final DiffUtil.DiffResult result = DiffUtil.calculateDiff(new DiffUtil.Callback() {
+                    @Override
+                    public int getOldListSize() {
+                        return oldList.size();
+                    }
+
+                    @Override
+                    public int getNewListSize() {
+                        return newList.size();
+                    }
+
+                    @Override
+                    public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+                        return differ.areItemsTheSame(oldList.get(oldItemPosition), newList.get(newItemPosition));
+                    }
+
+                    @Override
+                    public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+                        return differ.areContentsTheSame(oldList.get(oldItemPosition), newList.get(newItemPosition));
+                    }
+
+                    @Nullable
+                    @Override
+                    public Object getChangePayload(int oldItemPosition, int newItemPosition) {
+                        return differ.getChangePayload(oldList.get(oldItemPosition), newList.get(newItemPosition));
+                    }
+                }, true);
+
+                mMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+
+                        // 已有更新的提交
+                        if (generation != mSubmitGeneration)
+                            return;
+
+                        onData().clear();
+                        onData().addAll(newList);
+
+                        // 比对期间数据被修改
+                        if (version != mDataVersion) {
+                            notifyModelChanged();
+                            return;
+                        }
+                        result.dispatchUpdatesTo(mUpdateCallback);
+                    }
+                });
+            }
+        });
     }
 
     public void addData(@NonNull T data) {
-        onData().add(data);
-        notifyItemInserted(onData().size() + getHeadCount());
-        notifyDataSetChanged();
+        addData(onData().size(), data);
     }
 
     public void addData(@NonNull Collection<? extends T> newData) {
-        onData().addAll(newData);
-        notifyItemRangeInserted(onData().size() - newData.size() + getHeadCount(), newData.size());
-        notifyDataSetChanged();
+        addData(onData().size(), newData);
     }
 
+    /**
+     * onData()是TransList时, 展开的节点和显示的子孙节点一起插入, 按显示数量的变化刷新
+     */
+    public void addData(@IntRange(from = 0) int index, @NonNull T data) {
+        final int size = onData().size();
+        onData().add(index, data);
+        notifyModelInserted(index, onData().size() - size);
+    }
+
+    public void addData(@IntRange(from = 0) int index, @NonNull Collection<? extends T> newData) {
+        if (newData.isEmpty()) return;
+        final int size = onData().size();
+        onData().addAll(index, newData);
+        notifyModelInserted(index, onData().size() - size);
+    }
+
+    /**
+     * onData()是TransList时, 显示的子孙节点一起删除, 按显示数量的变化刷新
+     */
     public void remove(@IntRange(from = 0) int position) {
+        final int size = onData().size();
         onData().remove(position);
-        int internalPosition = position + getHeadCount();
-        notifyItemRemoved(internalPosition);
-        notifyItemRangeChanged(internalPosition, onData().size() - internalPosition);
+        notifyModelRemoved(position, size - onData().size());
+    }
+
+    public void remove(@IntRange(from = 0) int position, @IntRange(from = 0) int count) {
+        if (count <= 0) return;
+        final int size = onData().size();
+        onData().subList(position, position + count).clear();
+        notifyModelRemoved(position, size - onData().size());
     }
 
     public void setData(@IntRange(from = 0) int index, @NonNull T data) {
-        onData().set(index, data);
-        notifyItemChanged(index + getHeadCount());
+        setData(index, data, null);
+    }
+
+    /**
+     * 修改数据, 局部刷新
+     *
+     * @param payload 局部刷新标记, 传给onNextPartial, null整条刷新
+     */
+    public void setData(@IntRange(from = 0) int index, @NonNull T data, @Nullable Object payload) {
+
+        // 多级菜单: 新旧节点有显示的子孙节点时, 删除旧节点再插入新节点
+        if (onData() instanceof TransList) {
+            final T old = onData().get(index);
+            final int oldCount = (old instanceof TransModel) ? countVisible((TransModel) old) : 0;
+            final int newCount = (data instanceof TransModel) ? countVisible((TransModel) data) : 0;
+            onData().set(index, data);
+            if (oldCount > 0 || newCount > 0) {
+                beginBatch();
+                getUpdateCallback().onRemoved(index, oldCount + 1);
+                getUpdateCallback().onInserted(index, newCount + 1);
+                endBatch();
+                return;
+            }
+        } else {
+            onData().set(index, data);
+        }
+        getUpdateCallback().onChanged(index, 1, payload);
+    }
+
+    /***********************************       批量API      **************************************/
+
+    /**
+     * 开始批量刷新, 期间的addData/remove/setData合并成最少的刷新通知
+     * <p>
+     * 必须和endBatch成对调用, 支持嵌套
+     */
+    public final void beginBatch() {
+        ++mBatchDepth;
+    }
+
+    /**
+     * 结束批量刷新, 发送合并后的刷新通知
+     */
+    public final void endBatch() {
+
+        if (mBatchDepth == 0)
+            return;
+
+        if (--mBatchDepth == 0) {
+            mBatchCallback.dispatchLastEvent();
+        }
+    }
+
+    public final boolean isBatch() {
+        return mBatchDepth > 0;
+    }
+
+    /**
+     * 数据刷新通知, 位置为数据索引(不含头部)
+     */
+    protected final ListUpdateCallback getUpdateCallback() {
+        return mBatchDepth > 0 ? mBatchCallback : mUpdateCallback;
+    }
+
+    private void notifyModelInserted(int index, int count) {
+
+        // 之前没有数据, 空布局切换
+        if (onData().size() == count) {
+            notifyModelChanged();
+        } else {
+            getUpdateCallback().onInserted(index, count);
+        }
+    }
+
+    private void notifyModelRemoved(int index, int count) {
+
+        // 没有数据了, 空布局切换
+        if (onData().isEmpty()) {
+            notifyModelChanged();
+        } else {
+            getUpdateCallback().onRemoved(index, count);
+        }
+    }
+
+    private void notifyModelChanged() {
+
+        // 先发送已合并的通知
+        if (mBatchDepth > 0) {
+            mBatchCallback.dispatchLastEvent();
+        }
+        ++mDataVersion;
+        notifyDataSetChanged();
+        onModelReplaced();
     }
 
     /**********************************       抽象方法API     **************************************/
@@ -780,7 +1740,16 @@ public abstract class BaseCommonAdapter<T> extends RecyclerView.Adapter<Recycler
     protected abstract void onNext(RecyclerHolder holder, T model, int position);
 
     /**
-     * 滑动距离
+     * 局部刷新, 只更新变化的控件, 默认整条刷新
+     *
+     * @param payloads 局部刷新标记, 同一帧内多次刷新会合并, 不为空
+     */
+    protected void onNextPartial(RecyclerHolder holder, T model, int position, @NonNull List<Object> payloads) {
+        onNext(holder, model, position);
+    }
+
+    /**
+     * 滑动距离, 需要setScrollOffsetEnabled(true)
      *
      * @param horizontalOffset 水平位移
      * @param verticalOffset   垂直位移
@@ -799,6 +1768,38 @@ public abstract class BaseCommonAdapter<T> extends RecyclerView.Adapter<Recycler
     protected void onHolder(RecyclerView.LayoutManager manager, RecyclerHolder holder, int type) {
     }
 
+    /**
+     * 数据插入, 刷新通知发送后回调, 子类同步和数据位置相关的状态
+     *
+     * @param position 数据索引(不含头部)
+     */
+    protected void onModelInserted(int position, int count) {
+    }
+
+    /**
+     * 数据删除, 刷新通知发送后回调
+     *
+     * @param position 数据索引(不含头部)
+     */
+    protected void onModelRemoved(int position, int count) {
+    }
+
+    /**
+     * 数据整体替换(clearInsertData, submitData, 空布局切换), 刷新通知发送后回调
+     */
+    protected void onModelReplaced() {
+    }
+
+    /**
+     * 创建holder时预先缓存的控件ID, 默认null(使用时再缓存)
+     *
+     * @param viewType 布局类型
+     */
+    protected @Nullable
+    int[] onCache(int viewType) {
+        return null;
+    }
+
     /***********************************       动画API       **************************************/
 
     @IntDef({BaseAnimation.ALPHAIN, BaseAnimation.SCALEIN, BaseAnimation.SLIDEIN_BOTTOM, BaseAnimation.SLIDEIN_LEFT, BaseAnimation.SLIDEIN_RIGHT})
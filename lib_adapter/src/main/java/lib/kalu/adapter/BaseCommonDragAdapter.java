@@ -126,7 +126,7 @@ public abstract class BaseCommonDragAdapter<T> extends BaseCommonAdapter<T> {
     }
 
     public int getViewHolderPosition(RecyclerView.ViewHolder viewHolder) {
-        return viewHolder.getAdapterPosition() - getHeadCount();
+        return viewHolder.getAdapterPosition() - getModelStart();
     }
 
     public void onItemDragStart(RecyclerView.ViewHolder viewHolder) {
@@ -1,9 +1,6 @@
 package lib.kalu.adapter;
 
-import android.view.ViewGroup;
-
 import androidx.annotation.LayoutRes;
-import androidx.annotation.NonNull;
 
 import lib.kalu.adapter.holder.RecyclerHolder;
 import lib.kalu.adapter.model.SectionModel;
@@ -20,12 +17,8 @@ public abstract class BaseCommonSectionAdapter<T extends SectionModel> extends B
     }
 
     @Override
-    protected RecyclerHolder createHolder(@NonNull ViewGroup parent, int resource, int viewType) {
-
-        if (viewType == RecyclerHolder.SECTION_VIEW) {
-            resource = onSection();
-        }
-        return super.createHolder(parent, resource, viewType);
+    protected int getLayoutId(int viewType) {
+        return viewType == RecyclerHolder.SECTION_VIEW ? onSection() : super.getLayoutId(viewType);
     }
 
     @Override
@@ -133,7 +133,7 @@ public abstract class BaseCommonSwipeDragAdapter<T> extends BaseCommonAdapter<T>
     }
 
     public int getViewHolderPosition(RecyclerView.ViewHolder viewHolder) {
-        return viewHolder.getAdapterPosition() - getHeadCount();
+        return viewHolder.getAdapterPosition() - getModelStart();
     }
 
     public void onItemDragStart(RecyclerView.ViewHolder viewHolder) {
@@ -1,5 +1,7 @@
 package lib.kalu.adapter;
 
+import android.os.Handler;
+import android.os.Looper;
 import android.text.TextUtils;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -8,12 +10,18 @@ import android.view.ViewParent;
 import android.widget.TextView;
 
 import androidx.annotation.LayoutRes;
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.OrientationHelper;
 import androidx.recyclerview.widget.RecyclerView;
 
+import java.util.Collections;
 import java.util.List;
 
 import lib.kalu.adapter.holder.RecyclerHolder;
+import lib.kalu.adapter.page.PageLoader;
+import lib.kalu.adapter.page.PageSource;
 
 /**
  * description: 加载更多
@@ -27,45 +35,139 @@ public abstract class BaseLoadAdapter<T> extends BaseCommonAdapter<T> {
     // 分页页码
     private int page = 1;
 
+    // 分页数据源
+    private PageLoader<?, T> mPageLoader;
+    // 距离最后一条数据多少条时预加载下一页
+    private int mPrefetch = 0;
+    // 最多保留的页数, 0不限制
+    private int mWindow = 0;
+    // 占位布局
+    private @LayoutRes
+    int mPlaceLayout;
+    // 最近显示的页
+    private int mWindowPage = -1;
+    private boolean isTrimPending = false;
+    // 加载下一页时末尾预先插入的占位数量
+    private int mPlaceSize = 0;
+    // 占位范围: 从下一页的起始索引开始mPlaceCount条, 外部插入的数据可能夹在中间
+    private int mPlaceCount = 0;
+    // 向前分页
+    private boolean isPrepend = false;
+    private int mLeadCount = 0;
+    // 分页自身修改数据, 不需要同步页的位置
+    private boolean isPageEdit = false;
+    private RecyclerView mRecyclerView;
+    private final Handler mLoadHandler = new Handler(Looper.getMainLooper());
+    // 刷新加载布局, 不能在onBindViewHolder中直接刷新
+    private final Runnable mLoadRefresh = new Runnable() {
+        @Override
+        public void run() {
+            if (onData().isEmpty())
+                return;
+            syncLead(null != mPageLoader && mPageLoader.getPrevState() != PageLoader.STATE_OVER);
+            if (mLeadCount > 0) {
+                notifyItemChanged(getHeadCount());
+            }
+            notifyItemChanged(getItemCount() - 1);
+        }
+    };
+    // 插入, 移除占位, 不能在onBindViewHolder中直接刷新
+    private final Runnable mPlaceRefresh = new Runnable() {
+        @Override
+        public void run() {
+            syncPlace();
+        }
+    };
+    // 丢弃窗口外的页, 不能在onBindViewHolder中直接刷新
+    private final Runnable mTrim = new Runnable() {
+        @Override
+        public void run() {
+            isTrimPending = false;
+            trimWindow();
+        }
+    };
+
     /***********************************       重写API       **************************************/
 
 
     @Override
-    public int getItemCount() {
+    protected int getLoadCount() {
+        return 1;
+    }
 
-        final List<T> list = onData();
-        if (null == list || list.size() == 0) {
-            return list.size() + getNullCount() + getHeadCount() + getFootCount();
-        } else {
-            return list.size() + getNullCount() + getHeadCount() + getFootCount() + 1;
+    @Override
+    protected int getLeadCount() {
+        return mLeadCount;
+    }
+
+    /**
+     * 设置了占位布局, 并且开启占位模式或者分页窗口时, null数据显示占位布局
+     */
+    @Override
+    protected boolean isPlaceEnabled() {
+        return mPlaceLayout != 0 && (mPlaceSize > 0 || mWindow > 0);
+    }
+
+    @Override
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onAttachedToRecyclerView(recyclerView);
+        mRecyclerView = recyclerView;
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        if (mRecyclerView == recyclerView) {
+            mRecyclerView = null;
         }
+        super.onDetachedFromRecyclerView(recyclerView);
     }
 
     @Override
-    public int getItemViewType(int position) {
+    protected void onModelInserted(int position, int count) {
+        super.onModelInserted(position, count);
 
-        // 没有数据
-        if (null == onData() || onData().size() == 0) {
-            return RecyclerHolder.NULL_VIEW;
+        if (isPageEdit || null == mPageLoader)
+            return;
+
+        // 插入在占位中间, 占位范围扩大
+        final int start = mPageLoader.getAppendStart();
+        if (position > start && position < start + mPlaceCount) {
+            mPlaceCount += count;
         }
-        // 有数据
-        else {
-            int numHead = getHeadCount();
-            if (position < numHead) {
-                return RecyclerHolder.HEAD_VIEW;
-            } else {
-
-                // 需要传递的索引位置
-                int realPosition = position - numHead;
-                int numModel = onData().size();
-                if (realPosition < numModel) {
-                    return getItemModelType(realPosition);
-                } else {
-                    realPosition = realPosition - numModel;
-                    int numFoot = getFootCount();
-                    return realPosition < numFoot ? RecyclerHolder.FOOT_VIEW : RecyclerHolder.LOAD_VIEW;
-                }
-            }
+        mPageLoader.insert(position, count);
+    }
+
+    @Override
+    protected void onModelRemoved(int position, int count) {
+        super.onModelRemoved(position, count);
+
+        if (isPageEdit || null == mPageLoader)
+            return;
+
+        // 删除了占位
+        final int start = mPageLoader.getAppendStart();
+        mPlaceCount -= Math.max(0, Math.min(position + count, start + mPlaceCount) - Math.max(position, start));
+        mPageLoader.remove(position, count);
+    }
+
+    /**
+     * 数据被外部替换, 丢弃请求中的结果, 占位和窗口, 从第一页的key重新开始
+     * <p>
+     * 替换为空数据时重新加载第一页, 替换为已有数据时需要调用setPageKey设置下一页的key
+     */
+    @Override
+    protected void onModelReplaced() {
+        super.onModelReplaced();
+
+        if (isPageEdit || null == mPageLoader)
+            return;
+
+        mPlaceCount = 0;
+        mWindowPage = -1;
+        over = false;
+        mPageLoader.reset(onData().size());
+        if (onData().isEmpty()) {
+            mPageLoader.loadAfter();
         }
     }
 
@@ -73,9 +175,9 @@ public abstract class BaseLoadAdapter<T> extends BaseCommonAdapter<T> {
     public RecyclerHolder onCreateViewHolder(ViewGroup parent, int viewType) {
 
         // 分页
-        if (viewType == RecyclerHolder.LOAD_VIEW) {
+        if (viewType == RecyclerHolder.LOAD_VIEW || viewType == RecyclerHolder.LEAD_VIEW) {
 
-            View inflate = LayoutInflater.from(parent.getContext()).inflate(onLoad(), parent, false);
+            View inflate = LayoutInflater.from(parent.getContext()).inflate(viewType == RecyclerHolder.LOAD_VIEW ? onLoad() : onLead(), parent, false);
             RecyclerHolder holder = new RecyclerHolder(parent, inflate);
 
             // 事件绑定
@@ -83,6 +185,12 @@ public abstract class BaseLoadAdapter<T> extends BaseCommonAdapter<T> {
 
             return holder;
         }
+        // 占位
+        else if (viewType == RecyclerHolder.PLACE_VIEW) {
+
+            View inflate = LayoutInflater.from(parent.getContext()).inflate(mPlaceLayout, parent, false);
+            return new RecyclerHolder(parent, inflate);
+        }
         // 默认
         else {
             return super.onCreateViewHolder(parent, viewType);
@@ -95,34 +203,304 @@ public abstract class BaseLoadAdapter<T> extends BaseCommonAdapter<T> {
         if (itemViewType == RecyclerHolder.LOAD_VIEW) {
             // Log.e("loadmoreac", "onBindViewHolder => over" + isLoadOver);
             onLoad(holder, over, page);
+            if (null != mPageLoader) {
+                mPageLoader.loadAfter();
+            }
+        } else if (itemViewType == RecyclerHolder.LEAD_VIEW) {
+            if (null != mPageLoader) {
+                onLead(holder, mPageLoader.getPrevState());
+                mPageLoader.loadBefore();
+            }
         } else {
             // Log.e("loadmoreac", "onholder = "+position);
             super.onBindViewHolder(holder, position);
+            prefetch(position);
+            moveWindow(position, itemViewType == RecyclerHolder.PLACE_VIEW);
+            if (itemViewType == RecyclerHolder.PLACE_VIEW) {
+                onPlace(holder, position);
+            }
         }
     }
 
-    @Override
-    public void onViewAttachedToWindow(RecyclerHolder holder) {
-        super.onViewAttachedToWindow(holder);
+    /**
+     * 加载下一页时末尾显示mPlaceSize个占位, 加载结束时移除
+     */
+    private void syncPlace() {
 
-        int type = holder.getItemViewType();
-        boolean isModel = (type == RecyclerHolder.NULL_VIEW || type == RecyclerHolder.HEAD_VIEW || type == RecyclerHolder.FOOT_VIEW || type == RecyclerHolder.LOAD_VIEW);
-        setModelStyle(holder, isModel);
+        final boolean loading = null != mPageLoader && mPageLoader.getState() == PageLoader.STATE_LOADING;
+        final int count = loading ? mPlaceSize : 0;
+        if (count == mPlaceCount)
+            return;
+
+        if (count > mPlaceCount) {
+            final int end = Math.min(mPageLoader.getAppendStart() + mPlaceCount, onData().size());
+            isPageEdit = true;
+            addData(end, Collections.<T>nCopies(count - mPlaceCount, null));
+            isPageEdit = false;
+            mPlaceCount = count;
+        } else {
+            removePlace(mPageLoader.getAppendStart(), count);
+        }
     }
 
-    @Override
-    protected boolean isModelType(int type) {
-        return super.isModelType(type) && (type != RecyclerHolder.LOAD_VIEW);
+    /**
+     * 从后向前删除占位, 直到剩余count条, 只删除仍然是null的数据
+     *
+     * @param start 占位起始索引
+     */
+    private void removePlace(int start, int count) {
+
+        final List<T> data = onData();
+        isPageEdit = true;
+        beginBatch();
+        for (int i = Math.min(start + mPlaceCount, data.size()) - 1; i >= start && mPlaceCount > count; i--) {
+            if (null == data.get(i)) {
+                remove(i, 1);
+            }
+            --mPlaceCount;
+        }
+        endBatch();
+        isPageEdit = false;
+        mPlaceCount = count;
     }
 
-    @Override
-    public void clearInsertData(@Nullable List<T> data) {
-        onData().clear();
-        mLastPosition = -1;
-        if (null != data) {
-            onData().addAll(data);
+    /**
+     * 下一页替换占位, 原位刷新, 多出的插入, 不足的删除
+     * <p>
+     * 只替换仍然是null的数据, 加载期间外部插入在占位中间的数据保留
+     */
+    private void appendPage(@NonNull List<T> newData) {
+
+        final List<T> data = onData();
+        final int last = mPageLoader.getPageCount() - 1;
+        // 页的位置, 之前可能有设置数据源前已有的数据
+        final int start = Math.min(mPageLoader.getPageStart(last), data.size());
+
+        if (mPlaceCount == 0) {
+            isPageEdit = true;
+            addData(start, newData);
+            isPageEdit = false;
+            return;
+        }
+
+        isPageEdit = true;
+        beginBatch();
+        final int end = Math.min(start + mPlaceCount, data.size());
+        int next = 0;
+        int i = start;
+        for (; i < end && next < newData.size(); i++) {
+            if (null != data.get(i))
+                continue;
+            data.set(i, newData.get(next++));
+            getUpdateCallback().onChanged(i, 1, null);
         }
-        notifyDataSetChanged();
+
+        // 多出的插入在占位之后, 不足的删除剩余的占位
+        if (next < newData.size()) {
+            addData(i, newData.subList(next, newData.size()));
+            i += newData.size() - next;
+        } else {
+            for (int j = end - 1; j >= i; j--) {
+                if (null == data.get(j)) {
+                    remove(j, 1);
+                }
+            }
+        }
+        mPlaceCount = 0;
+        endBatch();
+        isPageEdit = false;
+
+        // 页包含夹在中间的外部数据
+        mPageLoader.setPageSize(last, i - start);
+    }
+
+    /**
+     * 上一页插入在最前面, 保持第一个显示的数据位置不变
+     * <p>
+     * 前置加载布局在屏幕内时, LayoutManager会以它为锚点, 插入的数据会把原来的数据挤下去
+     */
+    private void prependPage(@NonNull List<T> data, boolean over) {
+
+        if (data.isEmpty())
+            return;
+
+        // 锚点: 第一个显示的数据
+        int anchor = -1;
+        int offset = 0;
+        final RecyclerView.LayoutManager manager = null == mRecyclerView ? null : mRecyclerView.getLayoutManager();
+        if (manager instanceof LinearLayoutManager) {
+            final LinearLayoutManager linear = (LinearLayoutManager) manager;
+            final OrientationHelper helper = OrientationHelper.createOrientationHelper(linear, linear.getOrientation());
+            for (int i = 0; i < linear.getChildCount(); i++) {
+                final View child = linear.getChildAt(i);
+                final int index = getModelIndex(linear.getPosition(child));
+                if (index == -1 || (anchor != -1 && index >= anchor))
+                    continue;
+                anchor = index;
+                offset = helper.getDecoratedStart(child) - helper.getStartAfterPadding();
+            }
+        }
+
+        isPageEdit = true;
+        addData(0, data);
+        isPageEdit = false;
+        if (mWindowPage != -1) {
+            ++mWindowPage;
+        }
+
+        // 先移除前置加载布局, 再恢复锚点
+        syncLead(!over);
+        if (anchor != -1) {
+            ((LinearLayoutManager) manager).scrollToPositionWithOffset(getModelStart() + anchor + data.size(), offset);
+        }
+    }
+
+    /**
+     * 前置加载布局: 开启向前分页, 有数据, 还有上一页时显示
+     */
+    private void syncLead(boolean hasPrev) {
+
+        final int count = isPrepend && hasPrev && !onData().isEmpty() ? 1 : 0;
+        if (count == mLeadCount)
+            return;
+
+        mLeadCount = count;
+        invalidateSegment();
+        if (count == 1) {
+            notifyItemInserted(getHeadCount());
+        } else {
+            notifyItemRemoved(getHeadCount());
+        }
+    }
+
+    /**
+     * 记录最近显示的页, 显示到被丢弃的页时重新加载
+     */
+    private void moveWindow(int position, boolean isPlace) {
+
+        if (null == mPageLoader || mWindow <= 0)
+            return;
+
+        final int index = getModelIndex(position);
+        if (index == -1)
+            return;
+
+        final int page = mPageLoader.findPage(index);
+        if (page == -1)
+            return;
+
+        if (isPlace) {
+            mPageLoader.loadPage(page);
+        }
+
+        if (page == mWindowPage)
+            return;
+
+        mWindowPage = page;
+        if (!isTrimPending) {
+            isTrimPending = true;
+            mLoadHandler.post(mTrim);
+        }
+    }
+
+    /**
+     * 窗口: 以最近显示的页为中心的mWindow页
+     */
+    private boolean inWindow(int page) {
+        final int first = mWindowPage - (mWindow - 1) / 2;
+        return page >= first && page < first + mWindow;
+    }
+
+    /**
+     * 窗口外已加载的页替换为null, 保留数量和位置
+     */
+    private void trimWindow() {
+
+        if (null == mPageLoader || mWindow <= 0 || mWindowPage == -1)
+            return;
+
+        final List<T> data = onData();
+        final int count = mPageLoader.getPageCount();
+        beginBatch();
+        for (int i = 0; i < count; i++) {
+
+            if (inWindow(i) || !mPageLoader.isPageLoaded(i))
+                continue;
+
+            final int start = mPageLoader.getPageStart(i);
+            final int size = mPageLoader.getPageSize(i);
+            if (start < 0 || start + size > data.size())
+                continue;
+
+            for (int j = start; j < start + size; j++) {
+                data.set(j, null);
+            }
+            mPageLoader.setPageLoaded(i, false);
+            getUpdateCallback().onChanged(start, size, null);
+        }
+        endBatch();
+    }
+
+    /**
+     * 被丢弃的页重新加载, 数量变化时插入或者删除差值
+     */
+    private void reloadPage(int page, @NonNull List<T> newData) {
+
+        // 加载过程中已经滑出窗口
+        if (mPageLoader.isPageLoaded(page) || !inWindow(page))
+            return;
+
+        final List<T> data = onData();
+        final int start = mPageLoader.getPageStart(page);
+        final int size = mPageLoader.getPageSize(page);
+        if (start < 0 || start + size > data.size())
+            return;
+
+        final int same = Math.min(size, newData.size());
+        isPageEdit = true;
+        beginBatch();
+        for (int i = 0; i < same; i++) {
+            data.set(start + i, newData.get(i));
+        }
+        if (same > 0) {
+            getUpdateCallback().onChanged(start, same, null);
+        }
+
+        if (newData.size() > size) {
+            addData(start + size, newData.subList(size, newData.size()));
+        } else if (newData.size() < size) {
+            remove(start + same, size - same);
+        }
+        endBatch();
+        isPageEdit = false;
+
+        mPageLoader.setPageSize(page, newData.size());
+        mPageLoader.setPageLoaded(page, true);
+    }
+
+    /**
+     * 滑动到距离最后一条数据mPrefetch条时, 预加载下一页
+     */
+    private void prefetch(int position) {
+
+        if (null == mPageLoader)
+            return;
+
+        final int index = getModelIndex(position);
+        if (index == -1)
+            return;
+
+        if (index >= onData().size() - 1 - mPrefetch) {
+            mPageLoader.loadAfter();
+        }
+        if (isPrepend && index <= mPrefetch) {
+            mPageLoader.loadBefore();
+        }
+    }
+
+    @Override
+    protected boolean isModelType(int type) {
+        return super.isModelType(type) && (type != RecyclerHolder.LOAD_VIEW) && (type != RecyclerHolder.LEAD_VIEW);
     }
 
 //    private final void forceLoad(RecyclerView recycler, RecyclerView.LayoutManager manager, boolean isRefresh) {
@@ -152,6 +530,154 @@ public abstract class BaseLoadAdapter<T> extends BaseCommonAdapter<T> {
 //        onLoad((RecyclerHolder) childViewHolder, isLoadOver, isRefresh);
 //    }
 
+    /***********************************       分页API       **************************************/
+
+    /**
+     * 设置分页数据源, 自动加载下一页, 自动维护页码和加载结束
+     * <p>
+     * 1.数据源在后台线程加载, 主线程追加数据并局部刷新
+     * 2.设置后列表数据由适配器维护, 不要再调用setPageAdd, setPageReset
+     * 3.已有的数据保留在前面, 第一页从已有数据之后开始
+     * 4.clearInsertData, submitData替换数据时丢弃请求中的结果, 下一页从新数据之后开始, 使用setPageKey设置下一页的key
+     *
+     * @param source   数据源
+     * @param initKey  第一页的key
+     * @param prefetch 距离最后一条数据多少条时预加载下一页
+     */
+    public final <K> void setPageSource(@NonNull PageSource<K, T> source, @NonNull K initKey, int prefetch) {
+
+        if (null != mPageLoader) {
+            mPageLoader.cancel();
+        }
+
+        // 上一个数据源的占位
+        if (mPlaceCount > 0) {
+            removePlace(mPageLoader.getAppendStart(), 0);
+        }
+
+        this.mPrefetch = Math.max(0, prefetch);
+        this.page = 1;
+        this.over = false;
+        this.mWindowPage = -1;
+        this.mPageLoader = new PageLoader<>(source, initKey, onData().size(), new PageLoader.Callback<T>() {
+            @Override
+            public void onAppend(@NonNull List<T> data, boolean isOver) {
+                over = isOver;
+                setPageAdd(1);
+                appendPage(data);
+                mLoadHandler.post(mLoadRefresh);
+            }
+
+            @Override
+            public void onPrepend(@NonNull List<T> data, boolean isOver) {
+                prependPage(data, isOver);
+            }
+
+            @Override
+            public void onReload(int index, @NonNull List<T> data) {
+                reloadPage(index, data);
+            }
+
+            @Override
+            public void onState(int state) {
+                mLoadHandler.post(mPlaceRefresh);
+                mLoadHandler.post(mLoadRefresh);
+            }
+        });
+
+        if (onData().isEmpty()) {
+            mPageLoader.loadAfter();
+        }
+    }
+
+    /**
+     * 外部替换数据后设置下一页的key, 例如下拉刷新时clearInsertData第一页数据之后
+     *
+     * @param nextKey 下一页的key, null没有更多
+     */
+    public final <K> void setPageKey(@Nullable K nextKey) {
+
+        if (null == mPageLoader)
+            return;
+
+        over = null == nextKey;
+        ((PageLoader<K, T>) mPageLoader).reset(mPageLoader.getAppendStart(), nextKey);
+    }
+
+    /**
+     * 分页窗口, 只保留最近显示的页附近的maxPages页, 其他页的数据替换为null并显示占位布局
+     * <p>
+     * 1.被丢弃的页保留数量和位置, 滑动回来时重新加载
+     * 2.onData()必须支持set, 例如ArrayList
+     * 3.占位布局高度应该和数据布局一致, 避免滑动位置跳动
+     *
+     * @param maxPages    最多保留的页数, 最少3页, 0不限制
+     * @param placeLayout 占位布局
+     */
+    public final void setPageWindow(int maxPages, @LayoutRes int placeLayout) {
+        this.mWindow = maxPages <= 0 ? 0 : Math.max(3, maxPages);
+        this.mPlaceLayout = placeLayout;
+        invalidateSegment();
+    }
+
+    /**
+     * 占位模式, 加载下一页时末尾预先显示pageSize个占位布局, 数据返回后原位替换
+     * <p>
+     * 1.占位布局高度应该和数据布局一致, 数据返回后不会重新测量已显示的位置, 也不会跳动
+     * 2.返回数量和pageSize不一致时, 只插入或者删除差值
+     * 3.和setPageWindow共用占位布局
+     *
+     * @param placeLayout 占位布局
+     * @param pageSize    每页数量, 0关闭
+     */
+    public final void setPlaceholder(@LayoutRes int placeLayout, int pageSize) {
+        this.mPlaceLayout = placeLayout;
+        this.mPlaceSize = Math.max(0, pageSize);
+        invalidateSegment();
+        mLoadHandler.post(mPlaceRefresh);
+    }
+
+    /**
+     * 向前分页, 数据源返回prevKey时在数据前面显示前置加载布局, 滑动到顶部自动加载上一页
+     * <p>
+     * 上一页一次性插入, 第一个显示的数据保持位置不变(LinearLayoutManager, GridLayoutManager)
+     *
+     * @param enable 是否开启
+     */
+    public final void setPagePrepend(boolean enable) {
+        this.isPrepend = enable;
+        mLoadHandler.post(mLoadRefresh);
+    }
+
+    /**
+     * 分页状态
+     *
+     * @return PageLoader.STATE_IDLE, STATE_LOADING, STATE_ERROR, STATE_OVER
+     */
+    public final int getLoadState() {
+        return null == mPageLoader ? (over ? PageLoader.STATE_OVER : PageLoader.STATE_IDLE) : mPageLoader.getState();
+    }
+
+    /**
+     * 向前分页状态
+     *
+     * @return PageLoader.STATE_IDLE, STATE_LOADING, STATE_ERROR, STATE_OVER
+     */
+    public final int getLeadState() {
+        return null == mPageLoader ? PageLoader.STATE_OVER : mPageLoader.getPrevState();
+    }
+
+    /**
+     * 加载失败后重试
+     */
+    public final void retry() {
+
+        if (null == mPageLoader)
+            return;
+
+        mPageLoader.retry();
+    }
+
     /***********************************       方法API       **************************************/
 
     /**
@@ -297,4 +823,28 @@ public abstract class BaseLoadAdapter<T> extends BaseCommonAdapter<T> {
      * 加载更多
      */
     protected abstract void onLoad(RecyclerHolder holder, boolean over, int page);
+
+    /**
+     * 占位布局, 可以在这里开始骨架动画
+     *
+     * @param position 列表位置
+     */
+    protected void onPlace(RecyclerHolder holder, int position) {
+    }
+
+    /**
+     * 前置加载布局, 默认和加载布局相同
+     */
+    protected @LayoutRes
+    int onLead() {
+        return onLoad();
+    }
+
+    /**
+     * 前置加载布局
+     *
+     * @param state PageLoader.STATE_IDLE, STATE_LOADING, STATE_ERROR
+     */
+    protected void onLead(RecyclerHolder holder, int state) {
+    }
 }
\ No newline at end of file
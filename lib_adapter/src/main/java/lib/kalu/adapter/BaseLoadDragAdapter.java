@@ -118,7 +118,7 @@ public abstract class BaseLoadDragAdapter<T> extends BaseLoadAdapter<T> {
     }
 
     public int getViewHolderPosition(RecyclerView.ViewHolder viewHolder) {
-        return viewHolder.getAdapterPosition() - getHeadCount();
+        return viewHolder.getAdapterPosition() - getModelStart();
     }
 
     public void onItemDragStart(RecyclerView.ViewHolder viewHolder) {
@@ -1,11 +1,12 @@
 package lib.kalu.adapter;
 
-import android.util.SparseArray;
 import android.view.ViewGroup;
 
 import androidx.annotation.LayoutRes;
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
 
+import lib.kalu.adapter.holder.MultRegistry;
 import lib.kalu.adapter.holder.RecyclerHolder;
 import lib.kalu.adapter.model.MultModel;
 
@@ -15,7 +16,7 @@ import lib.kalu.adapter.model.MultModel;
  */
 public abstract class BaseLoadMultAdapter<T extends MultModel> extends BaseLoadAdapter<T> {
 
-    private final SparseArray<Integer> mResIdList = new SparseArray<>();
+    private final MultRegistry mRegistry = new MultRegistry();
 
     public BaseLoadMultAdapter() {
         onMult();
@@ -27,18 +28,72 @@ public abstract class BaseLoadMultAdapter<T extends MultModel> extends BaseLoadA
         return item.getMultType();
     }
 
+    @Override
+    protected int getLayoutId(int viewType) {
+        return mRegistry.getLayoutId(viewType);
+    }
+
     @Override
     protected RecyclerHolder createHolder(@NonNull ViewGroup parent, int resource, int viewType) {
-        resource = getMultId(viewType);
-        return super.createHolder(parent, resource, viewType);
+
+        final MultRegistry.ViewCreator creator = mRegistry.getCreator(viewType);
+        if (null == creator)
+            return super.createHolder(parent, resource, viewType);
+
+        // 代码创建布局
+        RecyclerHolder holder = new RecyclerHolder(parent, creator.onCreate(parent));
+        holder.cacheViews(onCache(viewType));
+        return holder;
+    }
+
+    @Override
+    protected int onMerge(int position) {
+
+        final int spanSize = mRegistry.getSpanSize(getItemViewType(position + getModelStart()));
+        return spanSize == MultRegistry.SPAN_DEFAULT ? super.onMerge(position) : spanSize;
     }
 
-    private int getMultId(int viewType) {
-        return mResIdList.get(viewType);
+    @Override
+    protected int getPoolSize(int viewType) {
+        return mRegistry.getPoolSize(viewType);
+    }
+
+    @Override
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onAttachedToRecyclerView(recyclerView);
+
+        if (null == recyclerView)
+            return;
+
+        mRegistry.applyPool(recyclerView.getRecycledViewPool());
     }
 
     protected void addMult(int type, @LayoutRes int layoutResId) {
-        mResIdList.put(type, layoutResId);
+        mRegistry.put(type, layoutResId, MultRegistry.SPAN_DEFAULT, MultRegistry.POOL_DEFAULT);
+    }
+
+    /**
+     * 添加分类型布局
+     *
+     * @param type        类型
+     * @param layoutResId 布局ID
+     * @param spanSize    网格列数, MultRegistry.SPAN_DEFAULT使用onMerge
+     * @param poolSize    缓存数量, MultRegistry.POOL_DEFAULT使用默认值
+     */
+    protected void addMult(int type, @LayoutRes int layoutResId, int spanSize, int poolSize) {
+        mRegistry.put(type, layoutResId, spanSize, poolSize);
+    }
+
+    /**
+     * 添加分类型布局, 代码创建
+     *
+     * @param type     类型
+     * @param creator  创建布局
+     * @param spanSize 网格列数, MultRegistry.SPAN_DEFAULT使用onMerge
+     * @param poolSize 缓存数量, MultRegistry.POOL_DEFAULT使用默认值
+     */
+    protected void addMult(int type, @NonNull MultRegistry.ViewCreator creator, int spanSize, int poolSize) {
+        mRegistry.put(type, creator, spanSize, poolSize);
     }
 
     @Override
@@ -46,8 +101,18 @@ public abstract class BaseLoadMultAdapter<T extends MultModel> extends BaseLoadA
         return 0;
     }
 
+    @Override
+    protected String getPoolKey() {
+
+        final StringBuilder builder = new StringBuilder(super.getPoolKey());
+        for (int i = 0; i < mRegistry.size(); i++) {
+            builder.append(",").append(mRegistry.typeAt(i)).append("=").append(mRegistry.layoutAt(i));
+        }
+        return builder.toString();
+    }
+
     /**
      * 添加分类型布局
      */
     protected abstract void onMult();
-}
\ No newline at end of file
+}
@@ -1,9 +1,6 @@
 package lib.kalu.adapter;
 
-import android.view.ViewGroup;
-
 import androidx.annotation.LayoutRes;
-import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
 import lib.kalu.adapter.holder.RecyclerHolder;
@@ -21,11 +18,8 @@ public abstract class BaseLoadSectionAdapter<T extends SectionModel> extends Bas
     }
 
     @Override
-    protected RecyclerHolder createHolder(@NonNull ViewGroup parent, int resource, int viewType) {
-        if (viewType == RecyclerHolder.SECTION_VIEW) {
-            resource = onSection();
-        }
-        return super.createHolder(parent, resource, viewType);
+    protected int getLayoutId(int viewType) {
+        return viewType == RecyclerHolder.SECTION_VIEW ? onSection() : super.getLayoutId(viewType);
     }
 
     @Override
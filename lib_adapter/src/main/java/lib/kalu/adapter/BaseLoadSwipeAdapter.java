@@ -65,7 +65,7 @@ public abstract class BaseLoadSwipeAdapter<T> extends BaseLoadAdapter<T> {
     }
 
     public int getViewHolderPosition(RecyclerView.ViewHolder viewHolder) {
-        return viewHolder.getAdapterPosition() - getHeadCount();
+        return viewHolder.getAdapterPosition() - getModelStart();
     }
 
     public void onItemSwipeStart(RecyclerView.ViewHolder viewHolder) {
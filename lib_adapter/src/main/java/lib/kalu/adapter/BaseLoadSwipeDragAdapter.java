@@ -132,7 +132,7 @@ public abstract class BaseLoadSwipeDragAdapter<T> extends BaseLoadAdapter<T> {
     }
 
     public int getViewHolderPosition(RecyclerView.ViewHolder viewHolder) {
-        return viewHolder.getAdapterPosition() - getHeadCount();
+        return viewHolder.getAdapterPosition() - getModelStart();
     }
 
     public void onItemDragStart(RecyclerView.ViewHolder viewHolder) {
@@ -1,10 +1,10 @@
 package lib.kalu.adapter.animation;
 
-import android.animation.Animator;
-import android.animation.ObjectAnimator;
 import android.view.View;
 
-public final class AlphaInAnimation implements BaseAnimation {
+import androidx.annotation.NonNull;
+
+public final class AlphaInAnimation extends UpdateAnimation {
 
     private static final float DEFAULT_ALPHA_FROM = 0f;
     private final float mFrom;
@@ -18,9 +18,7 @@ public final class AlphaInAnimation implements BaseAnimation {
     }
 
     @Override
-    public Animator[] getAnimators(View view) {
-
-        final ObjectAnimator animator = ObjectAnimator.ofFloat(view, "alpha", mFrom, 1f);
-        return new Animator[]{animator};
+    public void onUpdate(@NonNull View view, float fraction) {
+        view.setAlpha(mFrom + (1f - mFrom) * fraction);
     }
 }
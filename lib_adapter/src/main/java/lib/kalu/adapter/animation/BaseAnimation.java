@@ -3,6 +3,12 @@ package lib.kalu.adapter.animation;
 import android.animation.Animator;
 import android.view.View;
 
+/**
+ * description: 入场动画
+ * <p>
+ * 1.继承UpdateAnimation, 由EntryAnimator直接设置属性, 不创建Animator
+ * 2.直接实现getAnimators的旧动画仍然可用, 每次显示时创建Animator
+ */
 public interface BaseAnimation {
 
     int ALPHAIN = 0x00000001;
@@ -11,5 +17,9 @@ public interface BaseAnimation {
     int SLIDEIN_LEFT = 0x00000004;
     int SLIDEIN_RIGHT = 0x00000005;
 
+    /**
+     * @deprecated 继承 {@link UpdateAnimation}, 实现onUpdate
+     */
+    @Deprecated
     Animator[] getAnimators(View view);
 }
@@ -0,0 +1,114 @@
+package lib.kalu.adapter.animation;
+
+import android.animation.Animator;
+import android.animation.AnimatorSet;
+import android.animation.ValueAnimator;
+import android.view.animation.Interpolator;
+import android.view.animation.LinearInterpolator;
+
+import androidx.annotation.NonNull;
+
+import lib.kalu.adapter.holder.RecyclerHolder;
+
+/**
+ * description: 入场动画驱动
+ * <p>
+ * 1.每个holder复用一个ValueAnimator, 滑动时不重复创建Animator
+ * 2.不使用View.animate(), 避免和RecyclerView.ItemAnimator的动画互相取消
+ * 3.holder回收, 滑出屏幕时取消动画(包括还在延迟中的动画), 并恢复到结束状态
+ * 4.没有继承UpdateAnimation的旧动画, 每次开始时通过getAnimators创建Animator
+ */
+public final class EntryAnimator {
+
+    private BaseAnimation mAnimation = new AlphaInAnimation();
+    private int mDuration = 300;
+    private final Interpolator mInterpolator = new LinearInterpolator();
+
+    public void setAnimation(@NonNull BaseAnimation animation) {
+        this.mAnimation = animation;
+    }
+
+    public void setDuration(int duration) {
+        this.mDuration = duration;
+    }
+
+    /**
+     * 开始动画, 正在执行的动画从头开始
+     */
+    public void start(@NonNull RecyclerHolder holder) {
+        start(holder, 0);
+    }
+
+    /**
+     * 延迟开始动画, 延迟期间保持开始状态
+     *
+     * @param delay 延迟时间
+     */
+    public void start(@NonNull RecyclerHolder holder, long delay) {
+
+        Animator animator = holder.getAnimator();
+        if (null != animator) {
+            animator.cancel();
+        }
+
+        if (mAnimation instanceof UpdateAnimation) {
+            if (!(animator instanceof ValueAnimator)) {
+                final ValueAnimator updater = ValueAnimator.ofFloat(0f, 1f);
+                updater.addUpdateListener(new Updater(holder));
+                animator = updater;
+                holder.setAnimator(animator);
+            }
+            ((UpdateAnimation) mAnimation).onUpdate(holder.itemView, 0f);
+        } else {
+            final Animator[] animators = mAnimation.getAnimators(holder.itemView);
+            if (null == animators || animators.length == 0) {
+                holder.setAnimator(null);
+                return;
+            }
+            final AnimatorSet set = new AnimatorSet();
+            set.playTogether(animators);
+            animator = set;
+            holder.setAnimator(animator);
+        }
+
+        animator.setDuration(mDuration);
+        animator.setInterpolator(mInterpolator);
+        animator.setStartDelay(delay);
+        animator.start();
+    }
+
+    /**
+     * 取消动画, 恢复到结束状态
+     */
+    public void cancel(@NonNull RecyclerHolder holder) {
+
+        final Animator animator = holder.getAnimator();
+        if (null == animator || !animator.isStarted())
+            return;
+
+        if (mAnimation instanceof UpdateAnimation) {
+            animator.cancel();
+            ((UpdateAnimation) mAnimation).onUpdate(holder.itemView, 1f);
+        } else {
+            animator.end();
+        }
+    }
+
+    /**********************************************************************************************/
+
+    private final class Updater implements ValueAnimator.AnimatorUpdateListener {
+
+        private final RecyclerHolder mHolder;
+
+        private Updater(@NonNull RecyclerHolder holder) {
+            this.mHolder = holder;
+        }
+
+        @Override
+        public void onAnimationUpdate(ValueAnimator animation) {
+            if (mAnimation instanceof UpdateAnimation) {
+                ((UpdateAnimation) mAnimation).onUpdate(mHolder.itemView, animation.getAnimatedFraction());
+            }
+        }
+    }
+}
@@ -1,10 +1,10 @@
 package lib.kalu.adapter.animation;
 
-import android.animation.Animator;
-import android.animation.ObjectAnimator;
 import android.view.View;
 
-public final class ScaleInAnimation implements BaseAnimation {
+import androidx.annotation.NonNull;
+
+public final class ScaleInAnimation extends UpdateAnimation {
 
     private static final float DEFAULT_SCALE_FROM = .5f;
     private final float mFrom;
@@ -18,9 +18,9 @@ public final class ScaleInAnimation implements BaseAnimation {
     }
 
     @Override
-    public Animator[] getAnimators(View view) {
-        ObjectAnimator scaleX = ObjectAnimator.ofFloat(view, "scaleX", mFrom, 1f);
-        ObjectAnimator scaleY = ObjectAnimator.ofFloat(view, "scaleY", mFrom, 1f);
-        return new ObjectAnimator[]{scaleX, scaleY};
+    public void onUpdate(@NonNull View view, float fraction) {
+        final float scale = mFrom + (1f - mFrom) * fraction;
+        view.setScaleX(scale);
+        view.setScaleY(scale);
     }
 }
@@ -1,15 +1,13 @@
 package lib.kalu.adapter.animation;
 
-import android.animation.Animator;
-import android.animation.ObjectAnimator;
 import android.view.View;
 
-public final class SlideInLeftAnimation implements BaseAnimation {
+import androidx.annotation.NonNull;
 
-    @Override
-    public Animator[] getAnimators(View view) {
+public final class SlideInLeftAnimation extends UpdateAnimation {
 
-        final ObjectAnimator animator = ObjectAnimator.ofFloat(view, "translationX", -view.getRootView().getWidth(), 0);
-        return new Animator[]{animator};
+    @Override
+    public void onUpdate(@NonNull View view, float fraction) {
+        view.setTranslationX(-view.getRootView().getWidth() * (1f - fraction));
     }
 }
@@ -0,0 +1,34 @@
+package lib.kalu.adapter.animation;
+
+import android.animation.Animator;
+import android.animation.ValueAnimator;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+
+/**
+ * description: 入场动画, 由EntryAnimator驱动, 不创建Animator
+ * <p>
+ * onUpdate: fraction从0到1, 0开始状态, 1结束状态(取消动画时直接设置为1)
+ */
+public abstract class UpdateAnimation implements BaseAnimation {
+
+    public abstract void onUpdate(@NonNull View view, float fraction);
+
+    /**
+     * 兼容旧接口, EntryAnimator不会调用
+     */
+    @Deprecated
+    @Override
+    public Animator[] getAnimators(final View view) {
+
+        final ValueAnimator animator = ValueAnimator.ofFloat(0f, 1f);
+        animator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
+            @Override
+            public void onAnimationUpdate(ValueAnimator animation) {
+                onUpdate(view, animation.getAnimatedFraction());
+            }
+        });
+        return new Animator[]{animator};
+    }
+}
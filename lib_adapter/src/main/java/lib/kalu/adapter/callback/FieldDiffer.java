@@ -0,0 +1,54 @@
+package lib.kalu.adapter.callback;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.List;
+
+/**
+ * description: 按字段比对, 局部刷新标记是变化字段的位掩码
+ * <p>
+ * 1.getChangeFlags: 返回变化字段的位掩码, 0表示内容相同
+ * 2.onNextPartial中通过getFlags合并全部标记, 只更新对应的控件
+ * 3.配合BaseCommonAdapter.submitData, setData(index, data, payload)使用
+ * <p>
+ * 注意: 比对在后台线程执行, 不要在回调中访问UI
+ */
+public abstract class FieldDiffer<T> extends ItemDiffer<T> {
+
+    @Override
+    public final boolean areContentsTheSame(@NonNull T oldItem, @NonNull T newItem) {
+        return getChangeFlags(oldItem, newItem) == 0;
+    }
+
+    @Override
+    public final @Nullable
+    Object getChangePayload(@NonNull T oldItem, @NonNull T newItem) {
+        final int flags = getChangeFlags(oldItem, newItem);
+        return flags == 0 ? null : flags;
+    }
+
+    /**
+     * 变化字段的位掩码, 例如: FLAG_PRICE = 1, FLAG_NAME = 1 << 1
+     *
+     * @return 0表示内容相同
+     */
+    public abstract int getChangeFlags(@NonNull T oldItem, @NonNull T newItem);
+
+    /**
+     * 合并局部刷新标记
+     *
+     * @param payloads onNextPartial的payloads
+     * @return 变化字段的位掩码, 有非位掩码标记时返回-1(全部字段)
+     */
+    public static int getFlags(@NonNull List<Object> payloads) {
+
+        int flags = 0;
+        for (Object payload : payloads) {
+            if (!(payload instanceof Integer))
+                return -1;
+            flags |= (Integer) payload;
+        }
+        return flags;
+    }
+}
@@ -0,0 +1,15 @@
+package lib.kalu.adapter.callback;
+
+import androidx.recyclerview.widget.DiffUtil;
+
+/**
+ * description: 数据差异比对, 配合BaseCommonAdapter.submitData使用
+ * <p>
+ * 1.areItemsTheSame: 是否同一条数据(一般比较id)
+ * 2.areContentsTheSame: 同一条数据内容是否变化
+ * 3.getChangePayload: 内容变化时的局部刷新标记, 默认null(整条刷新), 传给onNextPartial; 按字段比对使用FieldDiffer
+ * <p>
+ * 注意: 比对在后台线程执行, 不要在回调中访问UI
+ */
+public abstract class ItemDiffer<T> extends DiffUtil.ItemCallback<T> {
+}
@@ -0,0 +1,15 @@
+package lib.kalu.adapter.callback;
+
+import androidx.annotation.NonNull;
+
+/**
+ * description: 数据唯一标识, 配合BaseCommonAdapter.setItemKeyProvider使用
+ * <p>
+ * 1.同一条数据在增删改前后必须返回相同的key
+ * 2.不同数据的key不能重复
+ * 3.不要使用Long.MIN_VALUE ~ Long.MIN_VALUE + 15(头部, 脚部, 空布局, 加载布局保留)
+ */
+public interface ItemKeyProvider<T> {
+
+    long getItemKey(@NonNull T model);
+}
@@ -165,6 +165,8 @@ public class ItemSwipeHelperCallback extends ItemTouchHelper.Callback {
         switch (viewHolder.getItemViewType()) {
             case RecyclerHolder.HEAD_VIEW:
             case RecyclerHolder.LOAD_VIEW:
+            case RecyclerHolder.PLACE_VIEW:
+            case RecyclerHolder.LEAD_VIEW:
             case RecyclerHolder.FOOT_VIEW:
             case RecyclerHolder.NULL_VIEW:
                 return true;
@@ -1,27 +1,39 @@
 package lib.kalu.adapter.decoration;
 
-import android.graphics.Bitmap;
 import android.graphics.Canvas;
+import android.graphics.Picture;
 import android.graphics.Rect;
+import android.os.Build;
 import android.view.View;
 import android.view.ViewGroup;
 
+import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
 /**
  * description: 顶部悬浮菜单 - 例如搜索菜单
+ * <p>
+ * 1.API23+录制为Picture, 硬件加速时直接回放绘制命令, 不生成Bitmap
+ * 2.菜单内容变化(invalidate)时重新录制, 请求重新布局(requestLayout)或列表宽度变化时重新布局
+ * 3.API23以下每帧直接绘制菜单
  * created by kalu on 2017/6/14 13:48
  */
 public final class FloatDecoration extends RecyclerView.ItemDecoration {
 
-    private Bitmap mBitmap;
     private int height;
     private View tab;
+    // 菜单宽度, 列表宽度变化时重新布局
+    private int mWidth = -1;
+    private Picture mPicture;
+    private boolean isRecordDirty = true;
 
 
     public void setDecoration(View tab) {
         //根据position获取View
         this.tab = tab;
+        this.mWidth = -1;
+        this.mPicture = null;
+        this.isRecordDirty = true;
 
         /**
          * UNSPECIFIED(未指定),父控件对子控件不加任何束缚，子元素可以得到任意想要的大小
@@ -46,22 +58,78 @@ public final class FloatDecoration extends RecyclerView.ItemDecoration {
     }
 
     @Override
-    public void onDrawOver(Canvas c, RecyclerView parent, RecyclerView.State state) {
+    public void onDrawOver(Canvas c, final RecyclerView parent, RecyclerView.State state) {
         super.onDrawOver(c, parent, state);
 
-        if (null == mBitmap) {
+        if (null == tab)
+            return;
 
-            final ViewGroup.LayoutParams layoutParams = new ViewGroup.LayoutParams(parent.getWidth(), height);
-            tab.setLayoutParams(layoutParams);
-            tab.setDrawingCacheEnabled(false);
+        final int width = parent.getWidth() - parent.getPaddingLeft() - parent.getPaddingRight();
+        if (width <= 0)
+            return;
 
-            // 2.绘制TAB布局
-            final int right = parent.getWidth() - parent.getPaddingRight();
-            tab.layout(0, 0, right, height);
-            tab.buildDrawingCache();
-            mBitmap = tab.getDrawingCache();
+        // 1.列表宽度变化, 菜单请求重新布局
+        if (width != mWidth || tab.isLayoutRequested()) {
+            mWidth = width;
+            tab.measure(View.MeasureSpec.makeMeasureSpec(width, View.MeasureSpec.EXACTLY), View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+
+            // 高度变化, 下一帧重新计算预留高度
+            final int measuredHeight = tab.getMeasuredHeight();
+            if (measuredHeight != height) {
+                height = measuredHeight;
+                parent.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        parent.invalidateItemDecorations();
+                    }
+                });
+            }
+
+            tab.layout(0, 0, width, height);
+            isRecordDirty = true;
+        }
+
+        // 2.菜单内容变化
+        if (!isRecordDirty && isDirty(tab)) {
+            isRecordDirty = true;
         }
 
-        c.drawBitmap(mBitmap, parent.getPaddingLeft(), 0, null);
+        // 3.绘制菜单
+        final int save = c.save();
+        c.translate(parent.getPaddingLeft(), 0);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            if (isRecordDirty || null == mPicture) {
+                if (null == mPicture) {
+                    mPicture = new Picture();
+                }
+                final Canvas record = mPicture.beginRecording(width, height);
+                tab.draw(record);
+                mPicture.endRecording();
+            }
+            c.drawPicture(mPicture);
+        } else {
+            tab.draw(c);
+        }
+        c.restoreToCount(save);
+        isRecordDirty = false;
+    }
+
+    /**
+     * 菜单没有添加到窗口, invalidate不会通知父布局, 检查每个控件自身的标记
+     */
+    private boolean isDirty(@NonNull View view) {
+
+        if (view.isDirty())
+            return true;
+
+        if (!(view instanceof ViewGroup))
+            return false;
+
+        final ViewGroup group = (ViewGroup) view;
+        for (int i = 0; i < group.getChildCount(); i++) {
+            if (isDirty(group.getChildAt(i)))
+                return true;
+        }
+        return false;
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,7 @@
 package lib.kalu.adapter.decoration;
 
 import android.graphics.Canvas;
+import android.graphics.Paint;
 import android.graphics.Rect;
 import android.graphics.drawable.ColorDrawable;
 import android.graphics.drawable.Drawable;
@@ -11,11 +12,15 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import androidx.recyclerview.widget.StaggeredGridLayoutManager;
 
-import lib.kalu.adapter.manager.CrashGridLayoutManager;
-import lib.kalu.adapter.manager.CrashLinearLayoutManager;
+import lib.kalu.adapter.manager.CrashPagerGridLayoutManager;
 
 /**
  * description: RecyclerView分隔线
+ * <p>
+ * 1.支持LinearLayoutManager, GridLayoutManager, StaggeredGridLayoutManager, CrashPagerGridLayoutManager
+ * 2.只处理内部之间的分隔线, 不包括边框; 网格中每列分摊分隔线宽度, 保证每列宽度一致
+ * 3.网格的列索引使用布局时计算好的LayoutParams, 行索引使用SpanSizeLookup(适配器设置的SpanCacheLookup带缓存)
+ * 4.绘制时直接遍历子控件, 纯色分隔线使用同一个Paint绘制矩形, 每帧不创建对象
  * created by kalu on 2017/6/1 18:11
  */
 public final class SpaceDecoration extends RecyclerView.ItemDecoration {
@@ -33,6 +38,10 @@ public final class SpaceDecoration extends RecyclerView.ItemDecoration {
     private int mMarginStart = 0;
     private int mMarginEnd = 0;
 
+    // 绘制复用
+    private final Paint mPaint = new Paint();
+    private final Rect mOffsets = new Rect();
+
     public SpaceDecoration() {
         this(1);
     }
@@ -61,36 +70,47 @@ public final class SpaceDecoration extends RecyclerView.ItemDecoration {
     public void onDraw(Canvas c, RecyclerView parent, RecyclerView.State state) {
         super.onDraw(c, parent, state);
 
-        // 布局管理器
         final RecyclerView.LayoutManager layoutManager = parent.getLayoutManager();
+        if (null == layoutManager)
+            return;
 
-        // 孩子总个数
-        int itemCount = layoutManager.getItemCount();
-        if (itemCount <= 1) return;
+        final int itemCount = state.getItemCount();
+        if (itemCount <= 1)
+            return;
 
-        // 线性布局
-        if (layoutManager instanceof CrashLinearLayoutManager) {
-            CrashLinearLayoutManager linearLayoutManager = ((CrashLinearLayoutManager) layoutManager);
-            final int firstItem = linearLayoutManager.findFirstVisibleItemPosition();
-            for (int i = 0; i < layoutManager.getChildCount(); i++) {
-                final View view = layoutManager.findViewByPosition(firstItem + i);
-                if (view != null) {
-                    if (linearLayoutManager.getOrientation() == LinearLayoutManager.HORIZONTAL) {
-                        // 水平
-                        drawDrawableV(c, view);
-                    } else {
-                        // 垂直
-                        drawDrawableH(c, view);
-                    }
-                }
+        final boolean linear = isLinear(layoutManager);
+        final boolean vertical = linear && ((LinearLayoutManager) layoutManager).getOrientation() == RecyclerView.VERTICAL;
+
+        for (int i = 0; i < parent.getChildCount(); i++) {
+
+            final View view = parent.getChildAt(i);
+            final RecyclerView.LayoutParams p = (RecyclerView.LayoutParams) view.getLayoutParams();
+            if (!computeOffsets(mOffsets, layoutManager, p, itemCount))
+                return;
+
+            final int left = view.getLeft() - p.leftMargin;
+            final int top = view.getTop() - p.topMargin;
+            final int right = view.getRight() + p.rightMargin;
+            final int bottom = view.getBottom() + p.bottomMargin;
+
+            // 水平分隔线覆盖左右分隔线的交叉处, 线性布局使用margin
+            final int hStart = linear ? view.getLeft() + (vertical ? mMarginStart : 0) : left - mOffsets.left;
+            final int hEnd = linear ? view.getRight() - (vertical ? mMarginEnd : 0) : right + mOffsets.right;
+            final int vStart = linear ? view.getTop() + (vertical ? 0 : mMarginStart) : top;
+            final int vEnd = linear ? view.getBottom() - (vertical ? 0 : mMarginEnd) : bottom;
+
+            if (mOffsets.left > 0) {
+                drawDivider(c, mDividerDrawableV, left - mOffsets.left, vStart, left, vEnd);
+            }
+            if (mOffsets.right > 0) {
+                drawDivider(c, mDividerDrawableV, right, vStart, right + mOffsets.right, vEnd);
+            }
+            if (mOffsets.top > 0) {
+                drawDivider(c, mDividerDrawableH, hStart, top - mOffsets.top, hEnd, top);
+            }
+            if (mOffsets.bottom > 0) {
+                drawDivider(c, mDividerDrawableH, hStart, bottom, hEnd, bottom + mOffsets.bottom);
             }
-        }
-        // 网格布局
-        else if (layoutManager instanceof CrashGridLayoutManager) {
-            drawGrid(c, layoutManager);
-        }
-        // 流式布局(暂时不支持)
-        else if (layoutManager instanceof StaggeredGridLayoutManager) {
         }
     }
 
@@ -98,54 +118,16 @@ public final class SpaceDecoration extends RecyclerView.ItemDecoration {
     public void getItemOffsets(Rect outRect, View view, RecyclerView parent, RecyclerView.State state) {
         super.getItemOffsets(outRect, view, parent, state);
 
-        // 布局管理器
         final RecyclerView.LayoutManager layoutManager = parent.getLayoutManager();
+        if (null == layoutManager)
+            return;
 
-        // 孩子总个数
-        int itemCount = layoutManager.getItemCount();
-        if (itemCount <= 1) return;
-
-        final RecyclerView.LayoutParams layoutParam = (RecyclerView.LayoutParams) view.getLayoutParams();
-
-        // 当前View的位置
-        final int viewLayoutPosition = layoutParam.getViewLayoutPosition();
+        final int itemCount = state.getItemCount();
+        if (itemCount <= 1)
+            return;
 
-        // 线性布局
-        if (layoutManager instanceof CrashLinearLayoutManager) {
-            CrashLinearLayoutManager linearLayoutManager = ((CrashLinearLayoutManager) layoutManager);
-            if (linearLayoutManager.getOrientation() == LinearLayoutManager.HORIZONTAL) {
-                //水平方向
-                if (viewLayoutPosition == 0) {
-                    //这里可以决定,第一个item的分割线
-                    outRect.set(0, 0, (int) mDividerSize, 0);//默认只有右边有分割线, 你也可以把左边的分割线添加出来
-                } else if (viewLayoutPosition == itemCount - 1) {
-                    //这里可以决定, 最后一个item的分割线
-                    outRect.set(0, 0, 0, 0);//默认, 最后一个item不需要分割线
-                } else {
-                    //中间的item,默认只有右边的分割线
-                    outRect.set(0, 0, (int) mDividerSize, 0);
-                }
-            } else {
-                //垂直方向
-                if (viewLayoutPosition == 0) {
-                    //这里可以决定,第一个item的分割线
-                    outRect.set(0, 0, 0, (int) mDividerSize);//默认只有右边有分割线, 你也可以把左边的分割线添加出来
-                } else if (viewLayoutPosition == itemCount - 1) {
-                    //这里可以决定, 最后一个item的分割线
-                    outRect.set(0, 0, 0, 0);//默认, 最后一个item不需要分割线
-                } else {
-                    //中间的item,默认只有右边的分割线
-                    outRect.set(0, 0, 0, (int) mDividerSize);
-                }
-            }
-        }
-        // 网格布局
-        else if (layoutManager instanceof CrashGridLayoutManager) {
-            //请注意,这里的分割线 并不包括边框边上的分割线, 只处理不含边框的内部之间的分割线.
-            offsetsOfGrid(outRect, ((CrashGridLayoutManager) layoutManager), viewLayoutPosition);
-        }
-        // 流式布局(暂时不支持)
-        else if (layoutManager instanceof StaggeredGridLayoutManager) {
+        if (!computeOffsets(outRect, layoutManager, (RecyclerView.LayoutParams) view.getLayoutParams(), itemCount)) {
+            outRect.set(0, 0, 0, 0);
         }
     }
 
@@ -172,163 +154,121 @@ public final class SpaceDecoration extends RecyclerView.ItemDecoration {
 
     //------------------------------------------私有方法---------------------------------
 
+    private boolean isLinear(RecyclerView.LayoutManager layoutManager) {
+        return layoutManager instanceof LinearLayoutManager && !(layoutManager instanceof GridLayoutManager);
+    }
+
     /**
-     * GridLayoutManager 布局, 计算每个Item, 应该留出的空间(用来绘制分割线的空间)
+     * 计算每个Item应该留出的空间(用来绘制分割线的空间)
+     *
+     * @return 不支持的布局管理器返回false
      */
-    private void offsetsOfGrid(Rect outRect, CrashGridLayoutManager layoutManager, int viewLayoutPosition) {
-        final int spanCount = layoutManager.getSpanCount();
+    private boolean computeOffsets(Rect outRect, RecyclerView.LayoutManager layoutManager, RecyclerView.LayoutParams p, int itemCount) {
 
-        GridLayoutManager.SpanSizeLookup spanSizeLookup = layoutManager.getSpanSizeLookup();
-        int spanSize = spanSizeLookup.getSpanSize(viewLayoutPosition);
-        if (spanSize == 1)
-            return;
+        outRect.set(0, 0, 0, 0);
 
-        if (layoutManager.getOrientation() == RecyclerView.VERTICAL) {
-            //垂直方向
-//            if (isLastOfGrid(layoutManager.getItemCount(), viewLayoutPosition, spanCount)/*判断是否是最后一排*/) {
-//                //最后一排的item, 不添加底部分割线,为了美观
-//                outRect.set(0, 0, (int) mDividerSize, 0);
-//            } else {
-                if (isEndOfGrid(viewLayoutPosition, spanCount)/*判断是否是最靠右的一排*/) {
-                    //最靠右的一排,不添加右边的分割线, 为了美观
-                    outRect.set(0, 0, 0, (int) mDividerSize);
-                } else {
-                    outRect.set(0, 0, (int) mDividerSize, (int) mDividerSize);
-                }
-//            }
-        } else {
-            //水平方向
-//            if (isLastOfGrid(layoutManager.getItemCount(), viewLayoutPosition, spanCount)) {
-//                outRect.set(0, 0, 0, (int) mDividerSize);
-//            } else {
-                if (isEndOfGrid(viewLayoutPosition, spanCount)) {
-                    outRect.set(0, 0, (int) mDividerSize, 0);
-                } else {
-                    outRect.set(0, 0, (int) mDividerSize, (int) mDividerSize);
-                }
-//            }
-        }
+        // 当前View的位置
+        final int position = p.getViewLayoutPosition();
+        if (position == RecyclerView.NO_POSITION)
+            return true;
 
-    }
+        final int size = (int) mDividerSize;
 
-    /**
-     * 判断 viewLayoutPosition 是否是一排的结束位置 (垂直水平通用)
-     */
-    private boolean isEndOfGrid(int viewLayoutPosition, int spanCount) {
-        return viewLayoutPosition % spanCount == spanCount - 1;
-    }
+        // 网格布局
+        if (layoutManager instanceof GridLayoutManager) {
+
+            final GridLayoutManager manager = (GridLayoutManager) layoutManager;
+            final GridLayoutManager.SpanSizeLookup lookup = manager.getSpanSizeLookup();
+            final int spanCount = manager.getSpanCount();
+
+            final GridLayoutManager.LayoutParams params = (GridLayoutManager.LayoutParams) p;
+            int spanIndex = params.getSpanIndex();
+            int spanSize = params.getSpanSize();
+            if (spanIndex == GridLayoutManager.LayoutParams.INVALID_SPAN_ID) {
+                spanIndex = lookup.getSpanIndex(position, spanCount);
+                spanSize = lookup.getSpanSize(position);
+            }
+            // 默认SpanSizeLookup计算行索引O(position), 第一行只可能在前spanCount个位置
+            final boolean firstGroup = position < spanCount && lookup.getSpanGroupIndex(position, spanCount) == 0;
 
-    /**
-     * 判断 viewLayoutPosition 所在的位置,是否是最后一排(垂直水平通用)
-     */
-//    private boolean isLastOfGrid(int itemCount, int viewLayoutPosition, int spanCount) {
-//        boolean result = false;
-//        final double ceil = Math.ceil(((float) itemCount) / spanCount);
-//        if (viewLayoutPosition >= ceil * spanCount - spanCount) {
-//            result = true;
-//        }
-//        return result;
-//    }
+            offsetsOfGrid(outRect, manager.getOrientation() == RecyclerView.VERTICAL, spanIndex, spanSize, spanCount, !firstGroup, false, size);
+            return true;
+        }
+        // 流式布局
+        else if (layoutManager instanceof StaggeredGridLayoutManager) {
 
-    private boolean isLastOfGrid(GridLayoutManager manager, int position) {
+            final StaggeredGridLayoutManager manager = (StaggeredGridLayoutManager) layoutManager;
+            final StaggeredGridLayoutManager.LayoutParams params = (StaggeredGridLayoutManager.LayoutParams) p;
+            final int spanCount = manager.getSpanCount();
+            final boolean fullSpan = params.isFullSpan();
+            final int spanIndex = fullSpan ? 0 : params.getSpanIndex();
+            final int spanSize = fullSpan ? spanCount : 1;
 
-        int spanSize = manager.getSpanSizeLookup().getSpanSize(position);
-        int spanCount = manager.getSpanCount();
+            // 无法确定是否是每列的最后一个, 分隔线统一留在尾部, 最后一个除外
+            offsetsOfGrid(outRect, manager.getOrientation() == RecyclerView.VERTICAL, spanIndex, spanSize, spanCount, false, position != itemCount - 1, size);
+            return true;
+        }
+        // 线性布局
+        else if (layoutManager instanceof LinearLayoutManager) {
 
-        return (spanSize+1)%spanCount == 0;
-    }
+            if (position == itemCount - 1)
+                return true;
 
-    private void drawGrid(Canvas c, RecyclerView.LayoutManager manager) {
-        final GridLayoutManager layoutManager = (GridLayoutManager) manager;
-
-        final int firstItem = layoutManager.findFirstVisibleItemPosition();
-        for (int i = 0; i < layoutManager.getChildCount(); i++) {
-
-            final View view = layoutManager.findViewByPosition(firstItem + i);
-            if (null == view)
-                continue;
-
-            ///////////////////////////////////////
-
-            // TODO: 2019/04/22
-            GridLayoutManager.SpanSizeLookup spanSizeLookup = layoutManager.getSpanSizeLookup();
-            int spanSize = spanSizeLookup.getSpanSize(i);
-            if (spanSize != 1)
-                continue;
-
-            ///////////////////////////////////////
-
-            final int spanCount = layoutManager.getSpanCount();
-            final RecyclerView.LayoutParams layoutParams = (RecyclerView.LayoutParams) view.getLayoutParams();
-            final int viewLayoutPosition = layoutParams.getViewLayoutPosition();//布局时当前View的位置
-
-            if (layoutManager.getOrientation() == RecyclerView.VERTICAL) {
-                //垂直方向
-//                if (isLastOfGrid(layoutManager.getItemCount(), viewLayoutPosition, spanCount)/*判断是否是最后一排*/) {
-//                    //最后一排的item, 不添加底部分割线,为了美观
-//                    if (viewLayoutPosition != layoutManager.getItemCount() - 1) {
-//                        //如果不是最后一个,过滤掉最后一个.最后一item不滑分割线
-//                        drawDrawableV(c, view);
-//                    }
-//                } else {
-//                    if (isEndOfGrid(viewLayoutPosition, spanCount)/*判断是否是最靠右的一排*/) {
-//                        //最靠右的一排,不添加右边的分割线, 为了美观
-//                        drawDrawableH(c, view);
-//
-//                        // TODO: 2019/04/22
-//                        drawDrawableV(c, view);
-//                    } else {
-                        drawDrawableH(c, view);
-                        drawDrawableV(c, view);
-//                    }
-//                }
+            if (((LinearLayoutManager) layoutManager).getOrientation() == RecyclerView.HORIZONTAL) {
+                outRect.set(0, 0, size, 0);
             } else {
-//                //水平方向
-//                if (isLastOfGrid(layoutManager.getItemCount(), viewLayoutPosition, spanCount)) {
-//                    if (viewLayoutPosition != layoutManager.getItemCount() - 1) {
-//                        //如果不是最后一个,过滤掉最后一个.最后一item不滑分割线
-//                        drawDrawableH(c, view);
-//                    }
-//                } else {
-//                    if (isEndOfGrid(viewLayoutPosition, spanCount)) {
-//                        drawDrawableV(c, view);
-//                    } else {
-                        drawDrawableH(c, view);
-                        drawDrawableV(c, view);
-//                    }
-//                }
+                outRect.set(0, 0, 0, size);
             }
+            return true;
+        }
+        // 分页网格布局, 每页按行排列
+        else if (layoutManager instanceof CrashPagerGridLayoutManager) {
+
+            final CrashPagerGridLayoutManager manager = (CrashPagerGridLayoutManager) layoutManager;
+            final int rows = manager.getRows();
+            final int columns = manager.getColumns();
+            if (rows <= 0 || columns <= 0)
+                return true;
+
+            final int index = position % (rows * columns);
+            final int row = index / columns;
+            final int column = index - row * columns;
+            outRect.set(column * size / columns, row * size / rows, size - (column + 1) * size / columns, size - (row + 1) * size / rows);
+            return true;
         }
-    }
 
-    /**
-     * 绘制view对应垂直方向的分割线
-     */
-    private void drawDrawableV(Canvas c, View view) {
-
-        final RecyclerView.LayoutParams p = (RecyclerView.LayoutParams) view.getLayoutParams();
-        mDividerDrawableV.setBounds(
-                view.getRight() + p.rightMargin,
-                view.getTop() + mMarginStart,
-                (int) (view.getRight() + p.rightMargin + mDividerSize),
-                view.getBottom() - mMarginEnd);
-        drawDrawable(c, mDividerDrawableV);
+        return false;
     }
 
     /**
-     * 绘制view对应水平方向的分割线
+     * 网格布局, 列方向每列分摊分隔线宽度; 行方向分隔线在头部(lead)或尾部(tail)
      */
-    private void drawDrawableH(Canvas c, View view) {
-        final RecyclerView.LayoutParams p = (RecyclerView.LayoutParams) view.getLayoutParams();
-        mDividerDrawableH.setBounds(
-                view.getLeft() + mMarginStart,
-                view.getBottom() + p.bottomMargin,
-                view.getRight() - mMarginEnd,
-                (int) (view.getBottom() + p.bottomMargin + mDividerSize));
-        drawDrawable(c, mDividerDrawableH);
+    private void offsetsOfGrid(Rect outRect, boolean vertical, int spanIndex, int spanSize, int spanCount, boolean lead, boolean tail, int size) {
+
+        final int start = spanIndex * size / spanCount;
+        final int end = size - (spanIndex + spanSize) * size / spanCount;
+        final int head = lead ? size : 0;
+        final int foot = tail ? size : 0;
+
+        if (vertical) {
+            outRect.set(start, head, end, foot);
+        } else {
+            outRect.set(head, start, foot, end);
+        }
     }
 
-    private void drawDrawable(Canvas c, Drawable drawable) {
-        drawable.draw(c);
+    private void drawDivider(Canvas c, Drawable drawable, int left, int top, int right, int bottom) {
+
+        if (null == drawable || left >= right || top >= bottom)
+            return;
+
+        // 纯色直接绘制矩形
+        if (drawable instanceof ColorDrawable) {
+            mPaint.setColor(((ColorDrawable) drawable).getColor());
+            c.drawRect(left, top, right, bottom, mPaint);
+        } else {
+            drawable.setBounds(left, top, right, bottom);
+            drawable.draw(c);
+        }
     }
 }
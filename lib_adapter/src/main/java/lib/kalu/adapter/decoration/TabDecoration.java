@@ -2,30 +2,168 @@ package lib.kalu.adapter.decoration;
 
 import android.graphics.Bitmap;
 import android.graphics.Canvas;
+import android.graphics.Color;
 import android.graphics.Rect;
 import android.text.TextUtils;
+import android.util.LruCache;
 import android.view.View;
 import android.view.ViewGroup;
 
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.recyclerview.widget.RecyclerView;
 
+import java.util.Arrays;
+
 import lib.kalu.adapter.BaseCommonAdapter;
 
 /**
  * description: 利用分割线实现悬浮, 配合BaseCommonAdapter使用
+ * <p>
+ * 1.每个分组的Tab只调用一次loadView并绘制到Bitmap, 按分组名LRU缓存
+ * 2.notifyDataSetChanged, 列表宽度变化时清空缓存, 分组名不变时缓存有效, Tab内容变化时调用invalidate
+ * 3.loadName只对数据位置调用, 只在绘制到该位置或者相邻位置时调用, 结果保存到数据变化
+ * 4.局部刷新只清除变化位置的分组名, 插入删除移动从变化位置开始重新计算分组起点
+ * 5.列表离开窗口时注销数据监听, removeItemDecoration后需要调用release
  * created by kalu on 2017/6/14 13:48
  */
 public abstract class TabDecoration extends RecyclerView.ItemDecoration {
 
+    // 默认缓存的Tab数量
+    private static final int CACHE_DEFAULT = 8;
+
+    // key: 分组名, value: Tab绘制结果
+    private final LruCache<String, Bitmap> mCache;
+    // 被淘汰的Bitmap, 尺寸相同时复用
+    private Bitmap mRecycled;
+    private final Canvas mCanvas = new Canvas();
+    private int mCacheWidth = -1;
+    // 分组索引: 每个位置的分组名(未加载null, 没有分组""), 每个位置的分组起始位置(未计算-1)
+    private String[] mNames = new String[0];
+    private int[] mStarts = new int[0];
+    private boolean isIndexDirty = true;
+    // 监听数据变化
+    private RecyclerView.Adapter mAdapter;
+    private final RecyclerView.AdapterDataObserver mObserver = new RecyclerView.AdapterDataObserver() {
+        @Override
+        public void onChanged() {
+            invalidateIndex();
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount) {
+            changeIndex(positionStart, itemCount);
+        }
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            insertIndex(positionStart, itemCount);
+        }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            removeIndex(positionStart, itemCount);
+        }
+
+        @Override
+        public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+            changeIndex(Math.min(fromPosition, toPosition), Math.abs(fromPosition - toPosition) + itemCount);
+        }
+    };
+    // 列表离开窗口时释放
+    private RecyclerView mParent;
+    private final View.OnAttachStateChangeListener mAttachListener = new View.OnAttachStateChangeListener() {
+        @Override
+        public void onViewAttachedToWindow(View v) {
+        }
+
+        @Override
+        public void onViewDetachedFromWindow(View v) {
+            release();
+        }
+    };
 
     public TabDecoration() {
+        this(CACHE_DEFAULT);
+    }
+
+    /**
+     * @param cacheSize 缓存的Tab数量, 至少能容纳屏幕内同时显示的分组数
+     */
+    public TabDecoration(int cacheSize) {
+        mCache = new LruCache<String, Bitmap>(Math.max(1, cacheSize)) {
+            @Override
+            protected void entryRemoved(boolean evicted, String key, Bitmap oldValue, Bitmap newValue) {
+                if (oldValue != newValue) {
+                    mRecycled = oldValue;
+                }
+            }
+        };
+    }
+
+    /**
+     * 清空Tab缓存, 下一帧重新调用loadView
+     */
+    public void invalidate() {
+        mCache.evictAll();
+    }
+
+    /**
+     * 清空分组索引和Tab缓存, 重新调用loadName, loadView
+     */
+    public void invalidateIndex() {
+        isIndexDirty = true;
+        mCache.evictAll();
+    }
+
+    /**
+     * 注销数据监听, 清空分组索引和Tab缓存, 再次绘制时重新注册
+     */
+    public void release() {
+
+        if (null != mAdapter) {
+            mAdapter.unregisterAdapterDataObserver(mObserver);
+            mAdapter = null;
+        }
+        if (null != mParent) {
+            mParent.removeOnAttachStateChangeListener(mAttachListener);
+            mParent = null;
+        }
+        invalidateIndex();
+        mRecycled = null;
+    }
+
+    /**
+     * 分组起始位置
+     *
+     * @param position 列表位置
+     * @return 不属于任何分组返回-1
+     */
+    public int getGroupPosition(int position) {
+
+        final String name = getGroupName(position);
+        if (TextUtils.isEmpty(name))
+            return -1;
+
+        // 向前查找到分组起点或者已计算的位置, 经过的位置保存结果
+        int i = position;
+        while (mStarts[i] == -1 && i > 0 && name.equals(getGroupName(i - 1))) {
+            i--;
+        }
+        final int start = mStarts[i] == -1 ? i : mStarts[i];
+        for (int j = i; j <= position; j++) {
+            mStarts[j] = start;
+        }
+        return start;
     }
 
     @Override
     public void getItemOffsets(Rect outRect, View view, RecyclerView parent, RecyclerView.State state) {
         super.getItemOffsets(outRect, view, parent, state);
+        syncAdapter(parent);
 
         int position = parent.getChildAdapterPosition(view);
+        if (position == RecyclerView.NO_POSITION) return;
         int tabHeight = loadHeight(position);
         if (tabHeight == 0) return;
 
@@ -33,22 +171,30 @@ public abstract class TabDecoration extends RecyclerView.ItemDecoration {
             outRect.top = tabHeight;
         }
 
-        String groupId = loadName(position);
-        if (TextUtils.isEmpty(groupId)) return;
+        String groupName = getGroupName(position);
+        if (TextUtils.isEmpty(groupName)) return;
 
         //只有是同一组的第一个才显示悬浮栏
         if (position >= (hasHead() ? 2 : 1)) {
 
-            String preGroupId = loadName(position - 1);
-            if (!TextUtils.isEmpty(preGroupId) && !preGroupId.equals(groupId)) {
+            String preGroupName = getGroupName(position - 1);
+            if (!TextUtils.isEmpty(preGroupName) && !preGroupName.equals(groupName)) {
                 outRect.top = tabHeight;
             }
         }
     }
 
+    /**
+     * 绘制屏幕内每个分组起点的Tab, 不只是悬浮的Tab和被顶出的Tab
+     * <p>
+     * 1.第一个分组的Tab悬浮在顶部, 下一个分组接近时被顶出
+     * 2.其他分组的Tab绘制在getItemOffsets留出的空白处, 不绘制会留下空白
+     * 3.Tab按分组名缓存, 缓存命中时每个分组只有一次drawBitmap
+     */
     @Override
     public void onDrawOver(Canvas c, RecyclerView parent, RecyclerView.State state) {
         super.onDrawOver(c, parent, state);
+        syncAdapter(parent);
 
         // 孩子总个数
         int itemCount = state.getItemCount();
@@ -57,6 +203,10 @@ public abstract class TabDecoration extends RecyclerView.ItemDecoration {
 
         int left = parent.getPaddingLeft();
         int right = parent.getWidth() - parent.getPaddingRight();
+        if (right - left != mCacheWidth) {
+            mCacheWidth = right - left;
+            invalidate();
+        }
 
         String preGroupName;
         String currentGroupName = null;
@@ -66,11 +216,12 @@ public abstract class TabDecoration extends RecyclerView.ItemDecoration {
             // 1.当前遍历临时View
             View sub = parent.getChildAt(i);
             int position = parent.getChildAdapterPosition(sub);
+            if (position == RecyclerView.NO_POSITION) continue;
             int tabHeight = loadHeight(position);
             if(tabHeight == 0) continue;
 
             preGroupName = currentGroupName;
-            currentGroupName = loadName(position);
+            currentGroupName = getGroupName(position);
 
             if (TextUtils.isEmpty(currentGroupName) || TextUtils.equals(currentGroupName, preGroupName))
                 continue;
@@ -78,28 +229,17 @@ public abstract class TabDecoration extends RecyclerView.ItemDecoration {
             int viewBottom = sub.getBottom();
             int top = Math.max(tabHeight, sub.getTop());//top 决定当前顶部第一个悬浮Group的位置
             if (position + 1 < itemCount) {
-                //获取下个GroupName
-                String nextGroupName = loadName(position + 1);
+                //获取下个Group
+                String nextGroupName = getGroupName(position + 1);
                 //下一组的第一个View接近头部
                 if (!currentGroupName.equals(nextGroupName) && viewBottom < top) {
                     top = viewBottom;
                 }
             }
 
-            //根据position获取View
-            View tab = loadView(position);
-            if (null == tab) return;
-
-            // 1.填充TAB内容
-            ViewGroup.LayoutParams layoutParams = new ViewGroup.LayoutParams(ViewGroup.LayoutParams.WRAP_CONTENT, tabHeight);
-            tab.setLayoutParams(layoutParams);
-            tab.setDrawingCacheEnabled(true);
-            tab.measure(View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED), View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
-
-            // 2.绘制TAB布局
-            tab.layout(0, 0, right, tabHeight);
-            tab.buildDrawingCache();
-            Bitmap bitmap = tab.getDrawingCache();
+            //根据分组名获取Tab
+            Bitmap bitmap = loadBitmap(currentGroupName, position, right - left, tabHeight);
+            if (null == bitmap) return;
 
             if (hasHead() && position == 0) {
                 int headBottom = 0;
@@ -118,6 +258,167 @@ public abstract class TabDecoration extends RecyclerView.ItemDecoration {
         }
     }
 
+    /**
+     * 分组Tab, 缓存未命中时调用loadView绘制一次
+     */
+    private @Nullable
+    Bitmap loadBitmap(@NonNull String name, int position, int width, int height) {
+
+        if (width <= 0 || height <= 0)
+            return null;
+
+        final Bitmap cache = mCache.get(name);
+        if (null != cache && cache.getHeight() == height)
+            return cache;
+
+        View tab = loadView(position);
+        if (null == tab) return null;
+
+        // 1.填充TAB内容
+        tab.setLayoutParams(new ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, height));
+        tab.measure(View.MeasureSpec.makeMeasureSpec(width, View.MeasureSpec.EXACTLY), View.MeasureSpec.makeMeasureSpec(height, View.MeasureSpec.EXACTLY));
+        tab.layout(0, 0, width, height);
+
+        // 2.绘制TAB布局, 复用被淘汰的Bitmap
+        Bitmap bitmap = mRecycled;
+        mRecycled = null;
+        if (null == bitmap || bitmap.isRecycled() || bitmap.getWidth() != width || bitmap.getHeight() != height) {
+            bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        } else {
+            bitmap.eraseColor(Color.TRANSPARENT);
+        }
+        mCanvas.setBitmap(bitmap);
+        tab.draw(mCanvas);
+        mCanvas.setBitmap(null);
+
+        mCache.put(name, bitmap);
+        return bitmap;
+    }
+
+    /**
+     * 分组名, 相邻且分组名相同的位置属于同一分组, 每个位置只调用一次loadName
+     *
+     * @return 不是数据位置, 没有分组名返回""
+     */
+    private @NonNull
+    String getGroupName(int position) {
+
+        ensureIndex();
+        if (position < 0 || position >= mNames.length)
+            return "";
+
+        String name = mNames[position];
+        if (null == name) {
+            name = isModel(position) ? loadName(position) : null;
+            name = null == name ? "" : name;
+            mNames[position] = name;
+        }
+        return name;
+    }
+
+    /**
+     * BaseCommonAdapter的头部, 脚部, 加载布局, 空布局不属于任何分组
+     */
+    private boolean isModel(int position) {
+
+        if (mAdapter instanceof BaseCommonAdapter)
+            return ((BaseCommonAdapter) mAdapter).getModelIndex(position) != -1;
+
+        return true;
+    }
+
+    /**
+     * 数量和适配器不一致时(监听注册前的变化)全部重新加载
+     */
+    private void ensureIndex() {
+
+        final int count = null == mAdapter ? 0 : mAdapter.getItemCount();
+        if (!isIndexDirty && mNames.length == count)
+            return;
+
+        isIndexDirty = false;
+        mNames = new String[count];
+        mStarts = new int[count];
+        Arrays.fill(mStarts, -1);
+    }
+
+    /**
+     * 清除[start, start + count)的分组名, 之后的分组起点重新计算
+     */
+    private void changeIndex(int start, int count) {
+
+        if (isIndexDirty)
+            return;
+
+        final int size = mNames.length;
+        start = Math.max(0, Math.min(start, size));
+        Arrays.fill(mNames, start, Math.min(size, start + count), null);
+        Arrays.fill(mStarts, start, size, -1);
+    }
+
+    private void insertIndex(int start, int count) {
+
+        final int size = mNames.length;
+        if (isIndexDirty || start < 0 || start > size) {
+            isIndexDirty = true;
+            return;
+        }
+
+        final String[] names = new String[size + count];
+        System.arraycopy(mNames, 0, names, 0, start);
+        System.arraycopy(mNames, start, names, start + count, size - start);
+        final int[] starts = new int[size + count];
+        System.arraycopy(mStarts, 0, starts, 0, start);
+        Arrays.fill(starts, start, size + count, -1);
+        mNames = names;
+        mStarts = starts;
+    }
+
+    private void removeIndex(int start, int count) {
+
+        final int size = mNames.length;
+        if (isIndexDirty || start < 0 || start + count > size) {
+            isIndexDirty = true;
+            return;
+        }
+
+        final String[] names = new String[size - count];
+        System.arraycopy(mNames, 0, names, 0, start);
+        System.arraycopy(mNames, start + count, names, start, size - start - count);
+        final int[] starts = new int[size - count];
+        System.arraycopy(mStarts, 0, starts, 0, start);
+        Arrays.fill(starts, start, size - count, -1);
+        mNames = names;
+        mStarts = starts;
+    }
+
+    /**
+     * 列表更换适配器时重新注册数据监听, 同时监听列表离开窗口
+     */
+    private void syncAdapter(@NonNull RecyclerView parent) {
+
+        if (parent != mParent) {
+            if (null != mParent) {
+                mParent.removeOnAttachStateChangeListener(mAttachListener);
+            }
+            mParent = parent;
+            mParent.addOnAttachStateChangeListener(mAttachListener);
+        }
+
+        final RecyclerView.Adapter adapter = parent.getAdapter();
+        if (adapter == mAdapter)
+            return;
+
+        if (null != mAdapter) {
+            mAdapter.unregisterAdapterDataObserver(mObserver);
+        }
+        mAdapter = adapter;
+        if (null != mAdapter) {
+            mAdapter.registerAdapterDataObserver(mObserver);
+        }
+        invalidateIndex();
+    }
+
     /**************************************************************************************/
 
     public boolean hasHead() {
@@ -132,15 +433,15 @@ public abstract class TabDecoration extends RecyclerView.ItemDecoration {
     public abstract int loadHeight(int position);
 
     /**
-     * Tab名字
+     * Tab名字, 配合BaseCommonAdapter时只对数据位置调用, 不包括头部, 脚部, 加载布局
      *
-     * @param position
+     * @param position 列表位置
      * @return
      */
     public abstract String loadName(int position);
 
     /**
-     * Tab布局文件
+     * Tab布局文件, 同一分组缓存有效期间只调用一次
      *
      * @param position
      * @return
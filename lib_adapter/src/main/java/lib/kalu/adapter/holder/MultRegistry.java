@@ -0,0 +1,110 @@
+package lib.kalu.adapter.holder;
+
+import android.util.SparseArray;
+import android.util.SparseIntArray;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.LayoutRes;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * description: 分类型注册表, 每种类型的布局, 网格列数, 缓存数量
+ * <p>
+ * 1.布局: 布局ID 或者 代码创建(ViewCreator), 二选一
+ * 2.网格列数: 0使用适配器的onMerge
+ * 3.缓存数量: -1使用RecyclerView默认值
+ */
+public final class MultRegistry {
+
+    public static final int SPAN_DEFAULT = 0;
+    public static final int POOL_DEFAULT = -1;
+
+    private final SparseIntArray mLayouts = new SparseIntArray();
+    private final SparseArray<ViewCreator> mCreators = new SparseArray<>();
+    private final SparseIntArray mSpans = new SparseIntArray();
+    private final SparseIntArray mPools = new SparseIntArray();
+
+    public void put(int type, @LayoutRes int layoutId, int spanSize, int poolSize) {
+        mLayouts.put(type, layoutId);
+        mCreators.remove(type);
+        mSpans.put(type, spanSize);
+        mPools.put(type, poolSize);
+    }
+
+    public void put(int type, @NonNull ViewCreator creator, int spanSize, int poolSize) {
+        mLayouts.put(type, 0);
+        mCreators.put(type, creator);
+        mSpans.put(type, spanSize);
+        mPools.put(type, poolSize);
+    }
+
+    public boolean contains(int type) {
+        return mLayouts.indexOfKey(type) >= 0;
+    }
+
+    /**
+     * 布局ID, 代码创建的类型返回0
+     *
+     * @throws IllegalArgumentException 类型未注册
+     */
+    public @LayoutRes
+    int getLayoutId(int type) {
+
+        final int index = mLayouts.indexOfKey(type);
+        if (index < 0)
+            throw new IllegalArgumentException("mult type not registered: " + type);
+
+        return mLayouts.valueAt(index);
+    }
+
+    public @Nullable
+    ViewCreator getCreator(int type) {
+        return mCreators.get(type);
+    }
+
+    public int getSpanSize(int type) {
+        return mSpans.get(type, SPAN_DEFAULT);
+    }
+
+    public int getPoolSize(int type) {
+        return mPools.get(type, POOL_DEFAULT);
+    }
+
+    /**
+     * 设置缓存池中每种类型的缓存数量
+     */
+    public void applyPool(@NonNull RecyclerView.RecycledViewPool pool) {
+
+        for (int i = 0; i < mPools.size(); i++) {
+            final int size = mPools.valueAt(i);
+            if (size == POOL_DEFAULT) continue;
+            pool.setMaxRecycledViews(mPools.keyAt(i), size);
+        }
+    }
+
+    public int size() {
+        return mLayouts.size();
+    }
+
+    public int typeAt(int index) {
+        return mLayouts.keyAt(index);
+    }
+
+    public int layoutAt(int index) {
+        return mLayouts.valueAt(index);
+    }
+
+    /**********************************************************************************************/
+
+    /**
+     * 代码创建布局
+     */
+    public interface ViewCreator {
+
+        @NonNull
+        View onCreate(@NonNull ViewGroup parent);
+    }
+}
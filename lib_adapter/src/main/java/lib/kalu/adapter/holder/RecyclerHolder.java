@@ -1,5 +1,6 @@
 package lib.kalu.adapter.holder;
 
+import android.animation.Animator;
 import android.graphics.Bitmap;
 import android.graphics.Paint;
 import android.graphics.Typeface;
@@ -7,8 +8,10 @@ import android.graphics.drawable.Drawable;
 import android.os.Build;
 import android.text.TextWatcher;
 import android.text.util.Linkify;
+import android.util.SparseArray;
 import android.view.View;
 import android.view.ViewGroup;
+import android.view.ViewParent;
 import android.view.animation.AlphaAnimation;
 import android.widget.Adapter;
 import android.widget.AdapterView;
@@ -38,10 +41,25 @@ public final class RecyclerHolder extends RecyclerView.ViewHolder {
     public static final int FOOT_VIEW = -3; // 脚布局
     public static final int LOAD_VIEW = -4; // 加载布局
     public static final int SECTION_VIEW = -5; // 分组布局
+    public static final int PLACE_VIEW = -6; // 占位布局, 数据为null
+    public static final int LEAD_VIEW = -7; // 前置加载布局
 
     @Nullable
     private RecyclerView recyclerView;
 
+    // 控件缓存, 避免每次findViewById遍历布局
+    private final SparseArray<View> mViews = new SparseArray<>();
+
+    // 入场动画, 每个holder复用一个
+    @Nullable
+    private Animator animator;
+
+    // 绑定事件时的适配器和LayoutManager, 共享缓存池时holder可能被其他适配器复用
+    @Nullable
+    private Object owner;
+    @Nullable
+    private RecyclerView.LayoutManager ownerManager;
+
     public RecyclerHolder(@NonNull ViewGroup parent, @NonNull View itemView) {
         super(itemView);
 
@@ -50,6 +68,52 @@ public final class RecyclerHolder extends RecyclerView.ViewHolder {
         }
     }
 
+    /**
+     * 预先缓存控件
+     *
+     * @param viewIds 控件ID
+     */
+    public RecyclerHolder cacheViews(int... viewIds) {
+
+        if (null == viewIds) return this;
+
+        for (int id : viewIds) {
+            getView(id);
+        }
+        return this;
+    }
+
+    /**
+     * 清空控件缓存, itemView内容被替换时调用
+     */
+    public void clearViews() {
+        mViews.clear();
+    }
+
+    public @Nullable
+    Animator getAnimator() {
+        return animator;
+    }
+
+    public void setAnimator(@Nullable Animator animator) {
+        this.animator = animator;
+    }
+
+    /**
+     * 记录绑定事件时的适配器和LayoutManager
+     */
+    public void setOwner(@Nullable Object adapter, @Nullable RecyclerView.LayoutManager manager) {
+        this.owner = adapter;
+        this.ownerManager = manager;
+    }
+
+    /**
+     * 事件是否由该适配器和LayoutManager绑定
+     */
+    public boolean isOwner(@Nullable Object adapter, @Nullable RecyclerView.LayoutManager manager) {
+        return owner == adapter && ownerManager == manager;
+    }
+
     public RecyclerHolder setAdapter(int viewId, Adapter adapter) {
         AdapterView view = getView(viewId);
         view.setAdapter(adapter);
@@ -58,6 +122,12 @@ public final class RecyclerHolder extends RecyclerView.ViewHolder {
 
     public @Nullable
     RecyclerView getRecyclerView() {
+
+        // 共享缓存池时holder可能被其他列表复用
+        final ViewParent parent = itemView.getParent();
+        if (parent instanceof RecyclerView) {
+            return (RecyclerView) parent;
+        }
         return recyclerView;
     }
 
@@ -137,7 +207,15 @@ public final class RecyclerHolder extends RecyclerView.ViewHolder {
     /**********************************************************************************************/
 
     public <T extends View> T getView(int viewId) {
-        return (T) itemView.findViewById(viewId);
+
+        View view = mViews.get(viewId);
+        if (null == view) {
+            view = itemView.findViewById(viewId);
+            if (null != view) {
+                mViews.put(viewId, view);
+            }
+        }
+        return (T) view;
     }
 
     public RecyclerHolder setText(int viewId, CharSequence value) {
@@ -295,7 +373,6 @@ public final class RecyclerHolder extends RecyclerView.ViewHolder {
         if (null == itemView)
             return null;
 
-        T viewById = itemView.findViewById(id);
-        return viewById;
+        return getView(id);
     }
 }
\ No newline at end of file
@@ -5,7 +5,6 @@ import android.graphics.PointF;
 import android.graphics.Rect;
 import android.util.DisplayMetrics;
 import android.util.Log;
-import android.util.SparseArray;
 import android.view.View;
 import android.view.ViewGroup;
 
@@ -50,7 +49,8 @@ public class CrashPagerGridLayoutManager extends RecyclerView.LayoutManager impl
     private int mColumns;                           // 列数
     private int mOnePageSize;                       // 一页的条目数量
 
-    private SparseArray<Rect> mItemFrames;          // 条目的显示区域
+    private final Rect mItemFrame = new Rect();     // 条目的显示区域, 按位置直接计算, 复用
+    private final Rect mDisplayRect = new Rect();   // 当前显示区域, 复用
 
     private int mItemWidth = 0;                     // 条目宽度
     private int mItemHeight = 0;                    // 条目高度
@@ -64,6 +64,10 @@ public class CrashPagerGridLayoutManager extends RecyclerView.LayoutManager impl
 
     private boolean mAllowContinuousScroll = true;  // 是否允许连续滚动
 
+    private boolean isLayoutDirty = false;          // 行列数, 方向, 尺寸变化, 需要重新计算条目尺寸
+    private int mLastWidth = -1;                    // 上次测量的宽度
+    private int mLastHeight = -1;                   // 上次测量的高度
+
     private RecyclerView mRecyclerView;
 
     /**
@@ -76,17 +80,42 @@ public class CrashPagerGridLayoutManager extends RecyclerView.LayoutManager impl
     public CrashPagerGridLayoutManager(@IntRange(from = 1, to = 100) int rows,
                                        @IntRange(from = 1, to = 100) int columns,
                                        @OrientationType int orientation) {
-        mItemFrames = new SparseArray<>();
         mOrientation = orientation;
         mRows = rows;
         mColumns = columns;
         mOnePageSize = mRows * mColumns;
     }
 
+    /**
+     * 行数
+     */
+    public int getRows() {
+        return mRows;
+    }
+
+    /**
+     * 列数
+     */
+    public int getColumns() {
+        return mColumns;
+    }
+
+    /**
+     * 滚动方向
+     *
+     * @return VERTICAL, HORIZONTAL
+     */
+    public @OrientationType
+    int getOrientationType() {
+        return mOrientation;
+    }
+
     public void setRowColumn(@IntRange(from = 1, to = 100) int rows, @IntRange(from = 1, to = 100) int columns) {
         mRows = rows;
         mColumns = columns;
         mOnePageSize = mRows * mColumns;
+        isLayoutDirty = true;
+        requestLayout();
     }
 
     @Override
@@ -110,10 +139,11 @@ public class CrashPagerGridLayoutManager extends RecyclerView.LayoutManager impl
 //        Logi("Item onLayoutChildren isMeasuring = " + state.isMeasuring());
 //        Loge("Item onLayoutChildren state = " + state);
 
-        // 如果是 preLayout 则不重新布局
-        if (state.isPreLayout() || !state.didStructureChange()) {
+        // 如果是 preLayout 则不重新布局, 数据和尺寸都没有变化也不重新布局
+        if (state.isPreLayout() || (!state.didStructureChange() && !isLayoutDirty)) {
             return;
         }
+        isLayoutDirty = false;
 
         if (getItemCount() == 0) {
             removeAndRecycleAllViews(recycler);
@@ -153,22 +183,16 @@ public class CrashPagerGridLayoutManager extends RecyclerView.LayoutManager impl
 
         //     Logi("count = " + getItemCount());
 
-        if (mItemWidth <= 0) {
-            mItemWidth = getUsableWidth() / mColumns;
-        }
-        if (mItemHeight <= 0) {
-            mItemHeight = getUsableHeight() / mRows;
-        }
+        // 行列数, 尺寸变化后重新计算
+        mItemWidth = getUsableWidth() / mColumns;
+        mItemHeight = getUsableHeight() / mRows;
 
         mWidthUsed = getUsableWidth() - mItemWidth;
         mHeightUsed = getUsableHeight() - mItemHeight;
 
-        // 预存储两页的View显示区域
-        for (int i = 0; i < mOnePageSize * 2; i++) {
-            getItemFrameByPosition(i);
-        }
-
         if (mOffsetX == 0 && mOffsetY == 0) {
+            // 已添加的View放入暂存区复用, 避免重复创建
+            detachAndScrapAttachedViews(recycler);
             // 预存储View
             for (int i = 0; i < mOnePageSize; i++) {
                 if (i >= getItemCount()) break; // 防止数据过少时导致数组越界异常
@@ -214,7 +238,8 @@ public class CrashPagerGridLayoutManager extends RecyclerView.LayoutManager impl
         //     Logi("mOffsetY = " + mOffsetY);
 
         // 计算显示区域区前后多存储一列或则一行
-        Rect displayRect = new Rect(mOffsetX - mItemWidth, mOffsetY - mItemHeight,
+        final Rect displayRect = mDisplayRect;
+        displayRect.set(mOffsetX - mItemWidth, mOffsetY - mItemHeight,
                 getUsableWidth() + mOffsetX + mItemWidth, getUsableHeight() + mOffsetY + mItemHeight);
         // 对显显示区域进行修正(计算当前显示区域和最大显示区域对交集)
         displayRect.intersect(0, 0, mMaxScrollX + getUsableWidth(), mMaxScrollY + getUsableHeight());
@@ -259,7 +284,7 @@ public class CrashPagerGridLayoutManager extends RecyclerView.LayoutManager impl
      */
     private void addOrRemove(RecyclerView.Recycler recycler, Rect displayRect, int i) {
         View child = recycler.getViewForPosition(i);
-        Rect rect = getItemFrameByPosition(i);
+        final Rect rect = getItemFrameByPosition(i, mItemFrame);
         if (!Rect.intersects(displayRect, rect)) {
             removeAndRecycleView(child, recycler);   // 回收入暂存区
         } else {
@@ -354,54 +379,36 @@ public class CrashPagerGridLayoutManager extends RecyclerView.LayoutManager impl
     //--- 私有方法 ----------------------------------------------------------------------------------
 
     /**
-     * 获取条目显示区域
+     * 获取条目显示区域, 按位置直接计算, 不缓存
      *
-     * @param pos 位置下标
-     * @return 显示区域
+     * @param pos     位置下标
+     * @param outRect 输出的显示区域
+     * @return outRect
      */
-    private Rect getItemFrameByPosition(int pos) {
-        Rect rect = mItemFrames.get(pos);
-        if (null == rect) {
-            rect = new Rect();
-            // 计算显示区域 Rect
-
-            // 1. 获取当前View所在页数
-            int page = pos / mOnePageSize;
-
-            // 2. 计算当前页数左上角的总偏移量
-            int offsetX = 0;
-            int offsetY = 0;
-            if (canScrollHorizontally()) {
-                offsetX += getUsableWidth() * page;
-            } else {
-                offsetY += getUsableHeight() * page;
-            }
+    private Rect getItemFrameByPosition(int pos, Rect outRect) {
 
-            // 3. 根据在当前页面中的位置确定具体偏移量
-            int pagePos = pos % mOnePageSize;       // 在当前页面中是第几个
-            int row = pagePos / mColumns;           // 获取所在行
-            int col = pagePos - (row * mColumns);   // 获取所在列
+        // 1. 获取当前View所在页数
+        final int page = pos / mOnePageSize;
 
-            offsetX += col * mItemWidth;
-            offsetY += row * mItemHeight;
-
-            // 状态输出，用于调试
-            //    Logi("pagePos = " + pagePos);
-            //   Logi("行 = " + row);
-            //   Logi("列 = " + col);
+        // 2. 计算当前页数左上角的总偏移量
+        int offsetX = 0;
+        int offsetY = 0;
+        if (canScrollHorizontally()) {
+            offsetX += getUsableWidth() * page;
+        } else {
+            offsetY += getUsableHeight() * page;
+        }
 
-            //   Logi("offsetX = " + offsetX);
-            //    Logi("offsetY = " + offsetY);
+        // 3. 根据在当前页面中的位置确定具体偏移量
+        final int pagePos = pos - page * mOnePageSize;  // 在当前页面中是第几个
+        final int row = pagePos / mColumns;             // 获取所在行
+        final int col = pagePos - (row * mColumns);     // 获取所在列
 
-            rect.left = offsetX;
-            rect.top = offsetY;
-            rect.right = offsetX + mItemWidth;
-            rect.bottom = offsetY + mItemHeight;
+        offsetX += col * mItemWidth;
+        offsetY += row * mItemHeight;
 
-            // 存储
-            mItemFrames.put(pos, rect);
-        }
-        return rect;
+        outRect.set(offsetX, offsetY, offsetX + mItemWidth, offsetY + mItemHeight);
+        return outRect;
     }
 
     /**
@@ -517,6 +524,12 @@ public class CrashPagerGridLayoutManager extends RecyclerView.LayoutManager impl
         if (heightmode != EXACTLY && heightsize > 0) {
             heightmode = EXACTLY;
         }
+        // 尺寸变化后重新计算条目尺寸
+        if (widthsize != mLastWidth || heightsize != mLastHeight) {
+            mLastWidth = widthsize;
+            mLastHeight = heightsize;
+            isLayoutDirty = true;
+        }
         setMeasuredDimension(View.MeasureSpec.makeMeasureSpec(widthsize, widthmode),
                 View.MeasureSpec.makeMeasureSpec(heightsize, heightmode));
     }
@@ -730,7 +743,6 @@ public class CrashPagerGridLayoutManager extends RecyclerView.LayoutManager impl
     public int setOrientationType(@OrientationType int orientation) {
         if (mOrientation == orientation || mScrollState != SCROLL_STATE_IDLE) return mOrientation;
         mOrientation = orientation;
-        mItemFrames.clear();
         int x = mOffsetX;
         int y = mOffsetY;
         mOffsetX = y / getUsableHeight() * getUsableWidth();
@@ -739,6 +751,8 @@ public class CrashPagerGridLayoutManager extends RecyclerView.LayoutManager impl
         int my = mMaxScrollY;
         mMaxScrollX = my / getUsableHeight() * getUsableWidth();
         mMaxScrollY = mx / getUsableWidth() * getUsableHeight();
+        isLayoutDirty = true;
+        requestLayout();
         return mOrientation;
     }
 
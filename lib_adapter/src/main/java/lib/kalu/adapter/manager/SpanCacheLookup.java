@@ -0,0 +1,165 @@
+package lib.kalu.adapter.manager;
+
+import androidx.recyclerview.widget.GridLayoutManager;
+
+import java.util.Arrays;
+
+/**
+ * description: 网格列数计算, 缓存每个位置的列索引和行索引
+ * <p>
+ * 1.计算某个位置时, 从之前最近的缓存位置开始向后计算, 沿途每CHECKPOINT个位置缓存一次
+ * 2.数据变化时只清除变化位置之后的缓存(invalidateFrom), 之前的缓存继续有效
+ * 3.不使用SpanSizeLookup自带的缓存, GridLayoutManager每次数据变化都会清空全部缓存
+ * 4.缓存按位置升序保存在int数组中
+ */
+public abstract class SpanCacheLookup extends GridLayoutManager.SpanSizeLookup {
+
+    private static final int CHECKPOINT = 128;
+
+    // 缓存的位置, 升序
+    private int[] mPositions = new int[16];
+    // 列索引, 和mPositions一一对应
+    private int[] mSpans = new int[16];
+    // 行索引, 和mPositions一一对应
+    private int[] mGroups = new int[16];
+    private int mSize = 0;
+    private int mSpanCount = -1;
+
+    // 计算结果
+    private int mResultSpan, mResultGroup;
+
+    @Override
+    public int getSpanIndex(int position, int spanCount) {
+        compute(position, spanCount);
+        return mResultSpan;
+    }
+
+    @Override
+    public int getSpanGroupIndex(int adapterPosition, int spanCount) {
+        compute(adapterPosition, spanCount);
+        return mResultGroup;
+    }
+
+    /**
+     * 清除position及之后的缓存
+     *
+     * @param position 第一个变化的位置
+     */
+    public void invalidateFrom(int position) {
+        mSize = floorIndex(position) + 1;
+    }
+
+    public void invalidateAll() {
+        mSize = 0;
+    }
+
+    /**********************************************************************************************/
+
+    private void compute(int position, int spanCount) {
+
+        if (spanCount != mSpanCount) {
+            mSpanCount = spanCount;
+            invalidateAll();
+        }
+
+        // 命中缓存
+        final int floor = floorIndex(position);
+        final int hit = floor + 1;
+        if (hit < mSize && mPositions[hit] == position) {
+            mResultSpan = mSpans[hit];
+            mResultGroup = mGroups[hit];
+            return;
+        }
+
+        // 从之前最近的缓存位置开始
+        int current;
+        int span;
+        int group;
+        if (floor < 0) {
+            current = 0;
+            span = 0;
+            group = 0;
+        } else {
+            current = mPositions[floor];
+            span = mSpans[floor];
+            group = mGroups[floor];
+        }
+
+        while (current < position) {
+
+            // 下一个位置的起始列
+            int next = span + getSpanSize(current);
+            ++current;
+            if (next >= spanCount) {
+                next = 0;
+                ++group;
+            }
+
+            // 放不下换行
+            if (next != 0 && next + getSpanSize(current) > spanCount) {
+                next = 0;
+                ++group;
+            }
+            span = next;
+
+            if (current % CHECKPOINT == 0 && current != position) {
+                put(current, span, group);
+            }
+        }
+
+        put(position, span, group);
+        mResultSpan = span;
+        mResultGroup = group;
+    }
+
+    /**
+     * 插入缓存, 保持升序
+     */
+    private void put(int position, int span, int group) {
+
+        final int index = floorIndex(position) + 1;
+        if (index < mSize && mPositions[index] == position) {
+            mSpans[index] = span;
+            mGroups[index] = group;
+            return;
+        }
+
+        if (mSize == mPositions.length) {
+            final int capacity = mSize * 2;
+            mPositions = Arrays.copyOf(mPositions, capacity);
+            mSpans = Arrays.copyOf(mSpans, capacity);
+            mGroups = Arrays.copyOf(mGroups, capacity);
+        }
+
+        final int move = mSize - index;
+        if (move > 0) {
+            System.arraycopy(mPositions, index, mPositions, index + 1, move);
+            System.arraycopy(mSpans, index, mSpans, index + 1, move);
+            System.arraycopy(mGroups, index, mGroups, index + 1, move);
+        }
+        mPositions[index] = position;
+        mSpans[index] = span;
+        mGroups[index] = group;
+        ++mSize;
+    }
+
+    /**
+     * 小于position的最大缓存位置的索引
+     */
+    private int floorIndex(int position) {
+
+        int low = 0;
+        int high = mSize - 1;
+        int result = -1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            if (mPositions[mid] < position) {
+                result = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return result;
+    }
+}
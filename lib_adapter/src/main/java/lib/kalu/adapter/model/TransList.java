@@ -0,0 +1,477 @@
+package lib.kalu.adapter.model;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * description: 多级菜单数据集合, 大数据量时替代ArrayList作为onData()返回值
+ * <p>
+ * 1.按先序遍历保存全部节点(不管是否展开), 树状数组记录每个节点是否显示
+ * 2.位置 <=> 节点: O(log n)
+ * 3.展开, 折叠: O(k log n), k为显示数量的变化, 折叠只修改显示中的子孙节点的展开状态
+ * 4.add, remove, set使用显示位置, 修改该位置节点所在的modelList(根节点修改getRoots()), 修改后重建索引: O(n)
+ * 5.直接修改了节点的modelList需要调用rebuild
+ * 6.indexOf, contains按equals查找: O(n), positionOf按引用查找: O(log n)
+ */
+public final class TransList<T> extends AbstractList<T> {
+
+    // 先序遍历的全部节点
+    private Object[] mNodes = new Object[0];
+    // 父节点索引, 根节点-1
+    private int[] mParent = new int[0];
+    // 子树结束索引(不包含)
+    private int[] mEnd = new int[0];
+    // 是否显示
+    private boolean[] mVisible = new boolean[0];
+    // 树状数组, 下标从1开始
+    private int[] mTree = new int[1];
+    private int mCount = 0;
+    private int mSize = 0;
+    // 节点 => 先序索引
+    private final IdentityHashMap<Object, Integer> mIndex = new IdentityHashMap<>();
+    // 根节点
+    private final List<T> mRoots = new ArrayList<>();
+
+    public TransList() {
+    }
+
+    public TransList(@Nullable Collection<? extends T> roots) {
+        if (null != roots) {
+            mRoots.addAll(roots);
+        }
+        rebuild();
+    }
+
+    /**********************************************************************************************/
+
+    @Override
+    public T get(int index) {
+
+        if (index < 0 || index >= mSize)
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + mSize);
+
+        return (T) mNodes[find(index + 1)];
+    }
+
+    @Override
+    public int size() {
+        return mSize;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+
+        int position = 0;
+        for (int i = 0; i < mCount; i++) {
+            if (!mVisible[i])
+                continue;
+            if (null == o ? null == mNodes[i] : o.equals(mNodes[i]))
+                return position;
+            ++position;
+        }
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+
+        int position = mSize - 1;
+        for (int i = mCount - 1; i >= 0; i--) {
+            if (!mVisible[i])
+                continue;
+            if (null == o ? null == mNodes[i] : o.equals(mNodes[i]))
+                return position;
+            --position;
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) != -1;
+    }
+
+    @Override
+    public void add(int index, T element) {
+        addAll(index, Collections.singletonList(element));
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends T> c) {
+        return addAll(mSize, c);
+    }
+
+    /**
+     * 插入到index位置的节点之前, 和该节点同级; index == size()时在末尾添加根节点
+     */
+    @Override
+    public boolean addAll(int index, Collection<? extends T> c) {
+
+        if (index < 0 || index > mSize)
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + mSize);
+
+        if (c.isEmpty())
+            return false;
+
+        if (index == mSize) {
+            mRoots.addAll(c);
+        } else {
+            final int node = find(index + 1);
+            final List list = container(node);
+            list.addAll(indexIn(list, mNodes[node]), c);
+        }
+        rebuild();
+        return true;
+    }
+
+    /**
+     * 替换index位置的节点, 子孙节点随节点一起替换
+     */
+    @Override
+    public T set(int index, T element) {
+
+        if (index < 0 || index >= mSize)
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + mSize);
+
+        final int node = find(index + 1);
+        final T old = (T) mNodes[node];
+        final List list = container(node);
+        list.set(indexIn(list, old), element);
+        rebuild();
+        return old;
+    }
+
+    /**
+     * 删除index位置的节点, 子孙节点随节点一起删除
+     */
+    @Override
+    public T remove(int index) {
+
+        if (index < 0 || index >= mSize)
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + mSize);
+
+        final T old = (T) mNodes[find(index + 1)];
+        removeRange(index, index + 1);
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        mRoots.clear();
+        rebuild();
+    }
+
+    /**
+     * 删除[fromIndex, toIndex)位置的节点, 子孙节点随节点一起删除, subList().clear()调用
+     */
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+
+        if (fromIndex >= toIndex)
+            return;
+
+        // 先收集, 已收集节点的子孙节点跳过
+        final ArrayList<Integer> nodes = new ArrayList<>(toIndex - fromIndex);
+        int last = -1;
+        for (int i = fromIndex; i < toIndex; i++) {
+            final int node = find(i + 1);
+            if (last >= 0 && node < mEnd[last])
+                continue;
+            nodes.add(node);
+            last = node;
+        }
+
+        for (int node : nodes) {
+            final List list = container(node);
+            list.remove(indexIn(list, mNodes[node]));
+        }
+        rebuild();
+    }
+
+    /**********************************************************************************************/
+
+    /**
+     * 展开
+     *
+     * @param position 显示位置
+     * @return 新显示的节点数量, 插入在position + 1
+     */
+    public int expand(int position) {
+
+        if (position < 0 || position >= mSize)
+            return 0;
+
+        final int node = find(position + 1);
+        final Object model = mNodes[node];
+        if (!(model instanceof TransModel))
+            return 0;
+
+        final TransModel trans = (TransModel) model;
+        if (trans.isExpanded() || !trans.hasModel())
+            return 0;
+
+        trans.setExpanded(true);
+        return setVisible(node, true);
+    }
+
+    /**
+     * 折叠, 子节点一起折叠
+     *
+     * @param position 显示位置
+     * @return 隐藏的节点数量, 从position + 1开始
+     */
+    public int collapse(int position) {
+
+        if (position < 0 || position >= mSize)
+            return 0;
+
+        final int node = find(position + 1);
+        final Object model = mNodes[node];
+        if (!(model instanceof TransModel))
+            return 0;
+
+        final TransModel trans = (TransModel) model;
+        if (!trans.isExpanded())
+            return 0;
+
+        trans.setExpanded(false);
+        return setVisible(node, false);
+    }
+
+    /**
+     * 节点显示位置, 按引用查找
+     *
+     * @return 不存在或者没有显示返回-1
+     */
+    public int positionOf(@Nullable Object model) {
+
+        final Integer node = mIndex.get(model);
+        if (null == node || !mVisible[node])
+            return -1;
+
+        return prefix(node + 1) - 1;
+    }
+
+    /**
+     * 父节点显示位置
+     *
+     * @param position 显示位置
+     * @return 根节点返回-1
+     */
+    public int getParentPosition(int position) {
+
+        if (position < 0 || position >= mSize)
+            return -1;
+
+        final int parent = mParent[find(position + 1)];
+        return parent < 0 ? -1 : prefix(parent + 1) - 1;
+    }
+
+    /**
+     * 全部展开到指定层级, getLevel() < maxLevel的节点展开, 其他节点折叠
+     *
+     * @param maxLevel 0全部折叠
+     */
+    public void expandAll(int maxLevel) {
+
+        for (int i = 0; i < mCount; i++) {
+            if (mNodes[i] instanceof TransModel) {
+                final TransModel trans = (TransModel) mNodes[i];
+                trans.setExpanded(trans.getLevel() < maxLevel && trans.hasModel());
+            }
+        }
+        refresh();
+    }
+
+    /**
+     * 当前显示的节点, O(n)
+     */
+    public @NonNull
+    List<T> snapshot() {
+
+        final ArrayList<T> list = new ArrayList<>(mSize);
+        for (int i = 0; i < mCount; i++) {
+            if (mVisible[i]) {
+                list.add((T) mNodes[i]);
+            }
+        }
+        return list;
+    }
+
+    public @NonNull
+    List<T> getRoots() {
+        return mRoots;
+    }
+
+    /**
+     * 重建索引, 节点的modelList或者展开状态在外部被修改后调用
+     */
+    public void rebuild() {
+
+        // 统计节点数量
+        mIndex.clear();
+        final ArrayList<Object> nodes = new ArrayList<>();
+        final ArrayList<Integer> parents = new ArrayList<>();
+        for (T root : mRoots) {
+            collect(root, -1, nodes, parents);
+        }
+
+        mCount = nodes.size();
+        mNodes = nodes.toArray();
+        mParent = new int[mCount];
+        mEnd = new int[mCount];
+        mVisible = new boolean[mCount];
+        mTree = new int[mCount + 1];
+
+        for (int i = 0; i < mCount; i++) {
+            mParent[i] = parents.get(i);
+            mIndex.put(mNodes[i], i);
+        }
+
+        // 子树结束索引, 倒序时子节点先于父节点处理
+        for (int i = mCount - 1; i >= 0; i--) {
+            if (mEnd[i] == 0) {
+                mEnd[i] = i + 1;
+            }
+            final int parent = mParent[i];
+            if (parent >= 0) {
+                mEnd[parent] = Math.max(mEnd[parent], mEnd[i]);
+            }
+        }
+
+        refresh();
+    }
+
+    /**
+     * 根据展开状态重新计算显示状态和树状数组, O(n)
+     */
+    private void refresh() {
+
+        mSize = 0;
+        Arrays.fill(mTree, 0);
+
+        // 显示状态: 祖先节点全部展开
+        for (int i = 0; i < mCount; i++) {
+            final int parent = mParent[i];
+            mVisible[i] = parent < 0 || (mVisible[parent] && ((TransModel) mNodes[parent]).isExpanded());
+            if (mVisible[i]) {
+                mTree[i + 1] = 1;
+                ++mSize;
+            }
+        }
+
+        // 线性构建树状数组
+        for (int i = 1; i <= mCount; i++) {
+            final int j = i + (i & -i);
+            if (j <= mCount) {
+                mTree[j] += mTree[i];
+            }
+        }
+    }
+
+    /**********************************************************************************************/
+
+    /**
+     * 节点所在的集合: 根节点getRoots(), 其他节点父节点的modelList
+     */
+    private List container(int node) {
+
+        final int parent = mParent[node];
+        return parent < 0 ? mRoots : ((TransModel) mNodes[parent]).getModelList();
+    }
+
+    private int indexIn(List list, Object model) {
+
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i) == model)
+                return i;
+        }
+        return -1;
+    }
+
+    private void collect(Object model, int parent, ArrayList<Object> nodes, ArrayList<Integer> parents) {
+
+        final int index = nodes.size();
+        nodes.add(model);
+        parents.add(parent);
+
+        if (!(model instanceof TransModel))
+            return;
+
+        final List list = ((TransModel) model).getModelList();
+        if (null == list)
+            return;
+
+        for (Object child : list) {
+            collect(child, index, nodes, parents);
+        }
+    }
+
+    /**
+     * 修改node的子孙节点显示状态, 跳过未展开节点的子树, 隐藏时经过的展开节点一起折叠
+     *
+     * @return 修改的数量
+     */
+    private int setVisible(int node, boolean visible) {
+
+        int count = 0;
+        int i = node + 1;
+        final int end = mEnd[node];
+        while (i < end) {
+
+            if (mVisible[i] != visible) {
+                mVisible[i] = visible;
+                update(i + 1, visible ? 1 : -1);
+                ++count;
+            }
+
+            final Object model = mNodes[i];
+            final boolean expanded = (model instanceof TransModel) && ((TransModel) model).isExpanded();
+            if (expanded && !visible) {
+                ((TransModel) model).setExpanded(false);
+            }
+            i = expanded ? i + 1 : mEnd[i];
+        }
+
+        mSize += visible ? count : -count;
+        return count;
+    }
+
+    private void update(int index, int delta) {
+        for (int i = index; i <= mCount; i += i & -i) {
+            mTree[i] += delta;
+        }
+    }
+
+    private int prefix(int index) {
+        int sum = 0;
+        for (int i = index; i > 0; i -= i & -i) {
+            sum += mTree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * 第k个显示节点的先序索引
+     */
+    private int find(int k) {
+
+        int pos = 0;
+        for (int step = Integer.highestOneBit(Math.max(1, mCount)); step > 0; step >>= 1) {
+            final int next = pos + step;
+            if (next <= mCount && mTree[next] < k) {
+                pos = next;
+                k -= mTree[next];
+            }
+        }
+        return pos;
+    }
+}
@@ -0,0 +1,488 @@
+package lib.kalu.adapter.page;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * description: 分页加载, 后台线程请求数据, 主线程回调结果
+ * <p>
+ * 1.向后(loadAfter), 向前(loadBefore)两个方向, 每个方向同一时间最多一个请求
+ * 2.加载失败进入STATE_ERROR, 不会自动重试, 需要调用retry
+ * 3.没有下一页(上一页)进入STATE_OVER
+ * 4.记录每一页的key和数据数量, 被丢弃的页可以通过loadPage重新加载, 失败后需要调用retry
+ * 5.页的位置由insert, remove, reset跟随外部修改, 设置数据源前已有的数据通过offset跳过
+ * 6.除后台请求外, 所有方法只能在主线程调用
+ */
+public final class PageLoader<K, T> {
+
+    public static final int STATE_IDLE = 0;
+    public static final int STATE_LOADING = 1;
+    public static final int STATE_ERROR = 2;
+    public static final int STATE_OVER = 3;
+
+    private static final Executor EXECUTOR = Executors.newCachedThreadPool();
+
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+    private final PageSource<K, T> mSource;
+    private final Callback<T> mCallback;
+    // 第一页的key, 重置时使用
+    private final K mInitKey;
+
+    // 向后
+    private K mNextKey;
+    private int mState;
+    // 向前, 第一页加载成功前没有上一页
+    private K mPrevKey;
+    private int mPrevState = STATE_OVER;
+    private Exception mError;
+    // 取消后丢弃请求结果
+    private int mGeneration = 0;
+    // 已加载的页, 按数据顺序
+    private final ArrayList<Page<K>> mPages = new ArrayList<>();
+    // 下一页的起始索引
+    private int mAppend;
+
+    public PageLoader(@NonNull PageSource<K, T> source, @Nullable K initKey, @NonNull Callback<T> callback) {
+        this(source, initKey, 0, callback);
+    }
+
+    /**
+     * @param offset 已有的数据数量, 第一页从offset开始
+     */
+    public PageLoader(@NonNull PageSource<K, T> source, @Nullable K initKey, int offset, @NonNull Callback<T> callback) {
+        this.mSource = source;
+        this.mCallback = callback;
+        this.mInitKey = initKey;
+        this.mNextKey = initKey;
+        this.mState = (null == initKey ? STATE_OVER : STATE_IDLE);
+        this.mAppend = Math.max(0, offset);
+    }
+
+    /**
+     * 加载下一页, 请求中, 失败, 没有更多时忽略
+     */
+    public void loadAfter() {
+
+        if (mState != STATE_IDLE)
+            return;
+
+        setState(STATE_LOADING, mPrevState);
+        request(mNextKey, false);
+    }
+
+    /**
+     * 加载上一页, 请求中, 失败, 没有更多时忽略
+     */
+    public void loadBefore() {
+
+        if (mPrevState != STATE_IDLE)
+            return;
+
+        setState(mState, STATE_LOADING);
+        request(mPrevKey, true);
+    }
+
+    private void request(final K key, final boolean prepend) {
+
+        final int generation = mGeneration;
+        EXECUTOR.execute(new Runnable() {
+            @Override
+            public void run() {
+
+                PageResult<K, T> result = null;
+                Exception error = null;
+                try {
+                    result = mSource.onLoad(key);
+                } catch (Exception e) {
+                    error = e;
+                }
+
+                final PageResult<K, T> page = result;
+                final Exception exception = error;
+                mMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+
+                        if (generation != mGeneration)
+                            return;
+
+                        if (null == page) {
+                            mError = exception;
+                            if (prepend) {
+                                setState(mState, STATE_ERROR);
+                            } else {
+                                setState(STATE_ERROR, mPrevState);
+                            }
+                            return;
+                        }
+
+                        mError = null;
+                        final boolean first = mPages.isEmpty();
+                        final List<T> data = page.getData();
+                        if (prepend) {
+                            mPrevKey = page.getPrevKey();
+                            addPage(true, key, data.size());
+                            mCallback.onPrepend(data, null == mPrevKey);
+                        } else {
+                            mNextKey = page.getNextKey();
+                            if (first) {
+                                mPrevKey = page.getPrevKey();
+                            }
+                            addPage(false, key, data.size());
+                            mCallback.onAppend(data, null == mNextKey);
+                        }
+
+                        final int state = null == mNextKey ? STATE_OVER : (prepend ? mState : STATE_IDLE);
+                        final int prevState = null == mPrevKey ? STATE_OVER : (prepend || first ? STATE_IDLE : mPrevState);
+                        setState(state, prevState);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * 重新加载被丢弃的页, 请求中, 失败, 未丢弃时忽略
+     *
+     * @param index 页索引
+     */
+    public void loadPage(int index) {
+
+        if (index < 0 || index >= mPages.size())
+            return;
+
+        final Page<K> page = mPages.get(index);
+        if (page.loaded || page.loading || page.error)
+            return;
+
+        page.loading = true;
+        final int generation = mGeneration;
+
+        EXECUTOR.execute(new Runnable() {
+            @Override
+            public void run() {
+
+                PageResult<K, T> result = null;
+                Exception error = null;
+                try {
+                    result = mSource.onLoad(page.key);
+                } catch (Exception e) {
+                    error = e;
+                }
+
+                final PageResult<K, T> data = result;
+                final Exception exception = error;
+                mMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+
+                        if (generation != mGeneration)
+                            return;
+
+                        page.loading = false;
+                        if (null == data) {
+                            mError = exception;
+                            page.error = true;
+                            mCallback.onState(mState);
+                            return;
+                        }
+
+                        // 加载过程中前面可能插入了新页
+                        final int current = mPages.indexOf(page);
+                        if (current == -1)
+                            return;
+
+                        mCallback.onReload(current, data.getData());
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * 页索引
+     *
+     * @param position 数据索引
+     * @return 不在任何页中返回-1
+     */
+    public int findPage(int position) {
+
+        int low = 0;
+        int high = mPages.size() - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final Page<K> page = mPages.get(mid);
+            if (position < page.start) {
+                high = mid - 1;
+            } else if (position >= page.start + page.size) {
+                low = mid + 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    public int getPageCount() {
+        return mPages.size();
+    }
+
+    public int getPageStart(int index) {
+        return mPages.get(index).start;
+    }
+
+    public int getPageSize(int index) {
+        return mPages.get(index).size;
+    }
+
+    public boolean isPageLoaded(int index) {
+        return mPages.get(index).loaded;
+    }
+
+    /**
+     * 重新加载失败, 需要调用retry
+     */
+    public boolean isPageError(int index) {
+        return mPages.get(index).error;
+    }
+
+    /**
+     * 下一页的起始索引
+     */
+    public int getAppendStart() {
+        return mAppend;
+    }
+
+    /**
+     * 标记页是否已加载, 丢弃页时设置false
+     */
+    public void setPageLoaded(int index, boolean loaded) {
+        mPages.get(index).loaded = loaded;
+    }
+
+    /**
+     * 修改页的数据数量, 后面的页依次偏移
+     */
+    public void setPageSize(int index, int size) {
+
+        final int delta = size - mPages.get(index).size;
+        mPages.get(index).size = size;
+        for (int i = index + 1; i < mPages.size(); i++) {
+            mPages.get(i).start += delta;
+        }
+        mAppend += delta;
+    }
+
+    /**
+     * 外部插入数据, 之后的页依次偏移, 插入在页中间时计入该页
+     *
+     * @param position 数据索引
+     */
+    public void insert(int position, int count) {
+
+        if (count <= 0)
+            return;
+
+        for (Page<K> page : mPages) {
+            if (position <= page.start) {
+                page.start += count;
+            } else if (position < page.start + page.size) {
+                page.size += count;
+            }
+        }
+        if (position <= mAppend) {
+            mAppend += count;
+        }
+    }
+
+    /**
+     * 外部删除数据, 之后的页依次偏移, 和删除范围重叠的页减去重叠的数量
+     *
+     * @param position 数据索引
+     */
+    public void remove(int position, int count) {
+
+        if (count <= 0)
+            return;
+
+        final int end = position + count;
+        for (Page<K> page : mPages) {
+            final int overlap = Math.max(0, Math.min(end, page.start + page.size) - Math.max(position, page.start));
+            page.start = page.start >= end ? page.start - count : Math.min(page.start, position);
+            page.size -= overlap;
+        }
+        mAppend = mAppend >= end ? mAppend - count : Math.min(mAppend, position);
+    }
+
+    /**
+     * 数据被外部整体替换, 从第一页重新开始
+     *
+     * @param offset 当前数据数量
+     */
+    public void reset(int offset) {
+        reset(offset, mInitKey);
+    }
+
+    /**
+     * 数据被外部整体替换, 丢弃请求中的结果和已记录的页, 下一页从offset开始使用nextKey加载
+     * <p>
+     * 第一页加载成功前没有上一页
+     *
+     * @param offset  当前数据数量
+     * @param nextKey 下一页的key, null没有更多
+     */
+    public void reset(int offset, @Nullable K nextKey) {
+
+        cancel();
+        mPages.clear();
+        mAppend = Math.max(0, offset);
+        mNextKey = nextKey;
+        mPrevKey = null;
+        mError = null;
+        setState(null == nextKey ? STATE_OVER : STATE_IDLE, STATE_OVER);
+    }
+
+    /**
+     * 加载失败后重试, 两个方向和重新加载失败的页都会重试
+     */
+    public void retry() {
+
+        for (int i = 0; i < mPages.size(); i++) {
+            final Page<K> page = mPages.get(i);
+            if (page.error) {
+                page.error = false;
+                loadPage(i);
+            }
+        }
+
+        final boolean after = mState == STATE_ERROR;
+        final boolean before = mPrevState == STATE_ERROR;
+        if (!after && !before)
+            return;
+
+        setState(after ? STATE_IDLE : mState, before ? STATE_IDLE : mPrevState);
+        if (after) {
+            loadAfter();
+        }
+        if (before) {
+            loadBefore();
+        }
+    }
+
+    /**
+     * 取消, 丢弃请求中的结果
+     */
+    public void cancel() {
+        ++mGeneration;
+        for (Page<K> page : mPages) {
+            page.loading = false;
+        }
+    }
+
+    /**
+     * 向后加载状态
+     */
+    public int getState() {
+        return mState;
+    }
+
+    /**
+     * 向前加载状态
+     */
+    public int getPrevState() {
+        return mPrevState;
+    }
+
+    public @Nullable
+    Exception getError() {
+        return mError;
+    }
+
+    private void setState(int state, int prevState) {
+
+        if (mState == state && mPrevState == prevState)
+            return;
+
+        mState = state;
+        mPrevState = prevState;
+        mCallback.onState(state);
+    }
+
+    /**
+     * 上一页插入在最前面, 之后的页依次偏移; 下一页从mAppend开始
+     */
+    private void addPage(boolean prepend, K key, int size) {
+
+        final Page<K> page = new Page<>();
+        page.key = key;
+        page.size = size;
+        page.loaded = true;
+
+        if (prepend) {
+            for (Page<K> item : mPages) {
+                item.start += size;
+            }
+            page.start = 0;
+            mPages.add(0, page);
+        } else {
+            page.start = mAppend;
+            mPages.add(page);
+        }
+        mAppend += size;
+    }
+
+    /**********************************************************************************************/
+
+    private static final class Page<K> {
+
+        private K key;
+        // 第一条数据的索引
+        private int start;
+        private int size;
+        private boolean loaded;
+        private boolean loading;
+        private boolean error;
+    }
+
+    public interface Callback<T> {
+
+        /**
+         * 加载下一页成功, 主线程
+         *
+         * @param data 当前页数据
+         * @param over 是否没有更多
+         */
+        void onAppend(@NonNull List<T> data, boolean over);
+
+        /**
+         * 加载上一页成功, 主线程
+         *
+         * @param data 当前页数据, 插入在最前面
+         * @param over 是否没有更多
+         */
+        void onPrepend(@NonNull List<T> data, boolean over);
+
+        /**
+         * 被丢弃的页重新加载成功, 主线程
+         *
+         * @param index 页索引
+         * @param data  当前页数据
+         */
+        void onReload(int index, @NonNull List<T> data);
+
+        /**
+         * 状态变化, 主线程
+         *
+         * @param state 向后加载状态, 向前加载状态通过getPrevState获取
+         */
+        void onState(int state);
+    }
+}
@@ -0,0 +1,46 @@
+package lib.kalu.adapter.page;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * description: 分页数据
+ * <p>
+ * 1.data: 当前页数据
+ * 2.prevKey: 上一页的key, null表示没有更多, 只向后分页时不需要
+ * 3.nextKey: 下一页的key, null表示没有更多
+ */
+public final class PageResult<K, T> {
+
+    private final List<T> data;
+    private final K prevKey;
+    private final K nextKey;
+
+    public PageResult(@Nullable List<T> data, @Nullable K nextKey) {
+        this(data, null, nextKey);
+    }
+
+    public PageResult(@Nullable List<T> data, @Nullable K prevKey, @Nullable K nextKey) {
+        this.data = (null == data ? Collections.<T>emptyList() : data);
+        this.prevKey = prevKey;
+        this.nextKey = nextKey;
+    }
+
+    public @NonNull
+    List<T> getData() {
+        return data;
+    }
+
+    public @Nullable
+    K getPrevKey() {
+        return prevKey;
+    }
+
+    public @Nullable
+    K getNextKey() {
+        return nextKey;
+    }
+}
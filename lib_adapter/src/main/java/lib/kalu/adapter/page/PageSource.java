@@ -0,0 +1,21 @@
+package lib.kalu.adapter.page;
+
+import androidx.annotation.NonNull;
+
+/**
+ * description: 分页数据源, 配合BaseLoadAdapter.setPageSource使用
+ * <p>
+ * 1.onLoad在后台线程执行, 可以直接同步请求网络, 数据库
+ * 2.抛出异常表示加载失败, 调用BaseLoadAdapter.retry重试
+ */
+public interface PageSource<K, T> {
+
+    /**
+     * 加载一页数据
+     *
+     * @param key 页码, 游标等
+     * @return 数据和相邻页的key
+     */
+    @NonNull
+    PageResult<K, T> onLoad(@NonNull K key) throws Exception;
+}
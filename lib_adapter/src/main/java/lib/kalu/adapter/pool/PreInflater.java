@@ -0,0 +1,163 @@
+package lib.kalu.adapter.pool;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.util.SparseArray;
+import android.util.SparseIntArray;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.LayoutRes;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayDeque;
+
+/**
+ * description: 预加载布局, 后台线程提前inflate, 按布局类型缓存
+ * <p>
+ * 1.后台线程自带Looper, 布局中创建Handler不会报错
+ * 2.后台inflate失败的布局, 改为主线程空闲时inflate
+ * 3.除后台inflate外, 所有方法只能在主线程调用
+ */
+public final class PreInflater {
+
+    private static HandlerThread sThread;
+    private static Handler sHandler;
+
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+    // 已加载的布局
+    private final SparseArray<ArrayDeque<View>> mViews = new SparseArray<>();
+    // 加载中的数量
+    private final SparseIntArray mPending = new SparseIntArray();
+    // 清空后丢弃加载中的布局
+    private int mGeneration = 0;
+
+    /**
+     * 预加载布局
+     *
+     * @param parent   RecyclerView, 用于生成LayoutParams
+     * @param viewType 布局类型
+     * @param layoutId 布局ID
+     * @param count    期望缓存数量
+     */
+    public void inflate(@NonNull final ViewGroup parent, final int viewType, @LayoutRes final int layoutId, int count) {
+
+        if (null == parent || layoutId == 0)
+            return;
+
+        final int need = count - size(viewType) - mPending.get(viewType);
+        if (need <= 0)
+            return;
+
+        mPending.put(viewType, mPending.get(viewType) + need);
+        final Context context = parent.getContext().getApplicationContext();
+        final LayoutInflater inflater = LayoutInflater.from(context).cloneInContext(context);
+        final int generation = mGeneration;
+
+        for (int i = 0; i < need; i++) {
+            getHandler().post(new Runnable() {
+                @Override
+                public void run() {
+
+                    View view;
+                    try {
+                        view = inflater.inflate(layoutId, parent, false);
+                    } catch (RuntimeException e) {
+                        view = null;
+                    }
+
+                    final View inflate = view;
+                    mMainHandler.post(new Runnable() {
+                        @Override
+                        public void run() {
+
+                            if (generation != mGeneration)
+                                return;
+
+                            if (null != inflate) {
+                                put(viewType, inflate);
+                            } else {
+                                inflateIdle(parent, viewType, layoutId, generation);
+                            }
+                        }
+                    });
+                }
+            });
+        }
+    }
+
+    /**
+     * 取出预加载的布局
+     *
+     * @param viewType 布局类型
+     * @return 没有返回null
+     */
+    public @Nullable
+    View take(int viewType) {
+
+        final ArrayDeque<View> views = mViews.get(viewType);
+        if (null == views || views.isEmpty())
+            return null;
+
+        return views.poll();
+    }
+
+    public int size(int viewType) {
+
+        final ArrayDeque<View> views = mViews.get(viewType);
+        return null == views ? 0 : views.size();
+    }
+
+    public void clear() {
+        ++mGeneration;
+        mViews.clear();
+        mPending.clear();
+    }
+
+    /**********************************************************************************************/
+
+    private void put(int viewType, View view) {
+
+        mPending.put(viewType, Math.max(0, mPending.get(viewType) - 1));
+
+        ArrayDeque<View> views = mViews.get(viewType);
+        if (null == views) {
+            views = new ArrayDeque<>();
+            mViews.put(viewType, views);
+        }
+        views.offer(view);
+    }
+
+    /**
+     * 主线程空闲时inflate, 每次空闲只加载一个
+     */
+    private void inflateIdle(final ViewGroup parent, final int viewType, final int layoutId, final int generation) {
+
+        Looper.myQueue().addIdleHandler(new MessageQueue.IdleHandler() {
+            @Override
+            public boolean queueIdle() {
+
+                if (generation == mGeneration) {
+                    final View view = LayoutInflater.from(parent.getContext().getApplicationContext()).inflate(layoutId, parent, false);
+                    put(viewType, view);
+                }
+                return false;
+            }
+        });
+    }
+
+    private static synchronized Handler getHandler() {
+
+        if (null == sHandler) {
+            sThread = new HandlerThread("PreInflater");
+            sThread.start();
+            sHandler = new Handler(sThread.getLooper());
+        }
+        return sHandler;
+    }
+}
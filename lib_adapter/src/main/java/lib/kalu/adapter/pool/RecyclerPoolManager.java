@@ -0,0 +1,144 @@
+package lib.kalu.adapter.pool;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.util.SparseIntArray;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.HashMap;
+
+import lib.kalu.adapter.holder.RecyclerHolder;
+
+/**
+ * description: 共享缓存池, 相同适配器和布局的列表共用一个RecycledViewPool
+ * <p>
+ * 1.头部, 脚部, 空布局是适配器独有的单例布局, 永远不进入共享缓存池
+ * 2.加载布局, 前置加载布局使用Activity的Context创建, 占位布局每个适配器单独设置, 同样不共享
+ * 3.每种布局的缓存数量 = 列表中同时显示的最大数量 + POOL_EXTRA
+ * 4.内存不足时清空缓存池
+ * 5.只能在主线程调用
+ */
+public final class RecyclerPoolManager implements ComponentCallbacks2 {
+
+    // 默认缓存数量
+    private static final int POOL_DEFAULT = 5;
+    // 预取, 动画额外需要的缓存数量
+    private static final int POOL_EXTRA = 2;
+
+    private static RecyclerPoolManager sInstance;
+
+    private final HashMap<String, Entry> mPools = new HashMap<>();
+
+    private RecyclerPoolManager() {
+    }
+
+    public static RecyclerPoolManager getInstance(@NonNull Context context) {
+
+        if (null == sInstance) {
+            sInstance = new RecyclerPoolManager();
+            context.getApplicationContext().registerComponentCallbacks(sInstance);
+        }
+        return sInstance;
+    }
+
+    /**
+     * 获取共享缓存池, 引用数+1
+     *
+     * @param key 适配器类名 + 布局ID
+     */
+    public @NonNull
+    RecyclerView.RecycledViewPool obtain(@NonNull String key) {
+
+        Entry entry = mPools.get(key);
+        if (null == entry) {
+            entry = new Entry();
+            entry.pool.setMaxRecycledViews(RecyclerHolder.NULL_VIEW, 0);
+            entry.pool.setMaxRecycledViews(RecyclerHolder.HEAD_VIEW, 0);
+            entry.pool.setMaxRecycledViews(RecyclerHolder.FOOT_VIEW, 0);
+            entry.pool.setMaxRecycledViews(RecyclerHolder.LOAD_VIEW, 0);
+            entry.pool.setMaxRecycledViews(RecyclerHolder.LEAD_VIEW, 0);
+            entry.pool.setMaxRecycledViews(RecyclerHolder.PLACE_VIEW, 0);
+            mPools.put(key, entry);
+        }
+        ++entry.count;
+        return entry.pool;
+    }
+
+    /**
+     * 释放共享缓存池, 引用数为0时丢弃
+     *
+     * @param key 适配器类名 + 布局ID
+     */
+    public void release(@NonNull String key) {
+
+        final Entry entry = mPools.get(key);
+        if (null == entry)
+            return;
+
+        if (--entry.count <= 0) {
+            entry.pool.clear();
+            mPools.remove(key);
+        }
+    }
+
+    /**
+     * 根据同时显示的最大数量调整缓存数量, 只增不减
+     *
+     * @param key      适配器类名 + 布局ID
+     * @param viewType 布局类型
+     * @param peak     同时显示的最大数量
+     */
+    public void updatePeak(@NonNull String key, int viewType, int peak) {
+
+        if (viewType == RecyclerHolder.NULL_VIEW || viewType == RecyclerHolder.HEAD_VIEW || viewType == RecyclerHolder.FOOT_VIEW || viewType == RecyclerHolder.LOAD_VIEW || viewType == RecyclerHolder.LEAD_VIEW || viewType == RecyclerHolder.PLACE_VIEW)
+            return;
+
+        final Entry entry = mPools.get(key);
+        if (null == entry)
+            return;
+
+        final int max = Math.max(POOL_DEFAULT, peak + POOL_EXTRA);
+        if (max <= entry.max.get(viewType, POOL_DEFAULT))
+            return;
+
+        entry.max.put(viewType, max);
+        entry.pool.setMaxRecycledViews(viewType, max);
+    }
+
+    public void clear() {
+        for (Entry entry : mPools.values()) {
+            entry.pool.clear();
+        }
+    }
+
+    /**********************************************************************************************/
+
+    @Override
+    public void onTrimMemory(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+            clear();
+        }
+    }
+
+    @Override
+    public void onLowMemory() {
+        clear();
+    }
+
+    @Override
+    public void onConfigurationChanged(@NonNull Configuration newConfig) {
+    }
+
+    /**********************************************************************************************/
+
+    private static final class Entry {
+
+        private final RecyclerView.RecycledViewPool pool = new RecyclerView.RecycledViewPool();
+        private final SparseIntArray max = new SparseIntArray();
+        // 引用数
+        private int count;
+    }
+}
@@ -0,0 +1,165 @@
+package lib.kalu.adapter.manager;
+
+import androidx.recyclerview.widget.GridLayoutManager;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * description: SpanCacheLookup和不带缓存的SpanSizeLookup结果一致
+ */
+public class SpanCacheLookupTest {
+
+    private static final int SPAN_COUNT = 4;
+    private static final int COUNT = 1000;
+
+    // 每个位置的列数
+    private final List<Integer> mSizes = new ArrayList<>();
+    private SpanCacheLookup mCache;
+    private GridLayoutManager.SpanSizeLookup mDefault;
+
+    @Before
+    public void setUp() {
+
+        // 混合列数: 整行标题, 3列, 2列, 1列
+        mSizes.clear();
+        for (int i = 0; i < COUNT; i++) {
+            if (i % 37 == 0) {
+                mSizes.add(SPAN_COUNT);
+            } else if (i % 11 == 0) {
+                mSizes.add(3);
+            } else if (i % 5 == 0) {
+                mSizes.add(2);
+            } else {
+                mSizes.add(1);
+            }
+        }
+
+        mCache = new SpanCacheLookup() {
+            @Override
+            public int getSpanSize(int position) {
+                return mSizes.get(position);
+            }
+        };
+        mDefault = new GridLayoutManager.SpanSizeLookup() {
+            @Override
+            public int getSpanSize(int position) {
+                return mSizes.get(position);
+            }
+        };
+    }
+
+    @Test
+    public void sequential() {
+        for (int i = 0; i < mSizes.size(); i++) {
+            assertSame(i, SPAN_COUNT);
+        }
+    }
+
+    @Test
+    public void randomJump() {
+
+        final Random random = new Random(7);
+        for (int i = 0; i < 2000; i++) {
+            assertSame(random.nextInt(mSizes.size()), SPAN_COUNT);
+        }
+    }
+
+    @Test
+    public void reverse() {
+        for (int i = mSizes.size() - 1; i >= 0; i--) {
+            assertSame(i, SPAN_COUNT);
+        }
+    }
+
+    @Test
+    public void invalidateMiddleInsert() {
+
+        warm();
+
+        // 中间插入一个3列和两个1列
+        final int start = 500;
+        mSizes.add(start, 1);
+        mSizes.add(start, 1);
+        mSizes.add(start, 3);
+        mCache.invalidateFrom(start);
+
+        for (int i = 0; i < mSizes.size(); i++) {
+            assertSame(i, SPAN_COUNT);
+        }
+    }
+
+    @Test
+    public void invalidateMiddleRemove() {
+
+        warm();
+
+        final int start = 300;
+        mSizes.subList(start, start + 5).clear();
+        mCache.invalidateFrom(start);
+
+        final Random random = new Random(11);
+        for (int i = 0; i < 2000; i++) {
+            assertSame(random.nextInt(mSizes.size()), SPAN_COUNT);
+        }
+    }
+
+    @Test
+    public void invalidateMiddleChange() {
+
+        warm();
+
+        // 修改一个位置的列数, 之前的缓存有效, 之后的重新计算
+        final int start = 640;
+        mSizes.set(start, SPAN_COUNT);
+        mCache.invalidateFrom(start);
+
+        for (int i = mSizes.size() - 1; i >= 0; i--) {
+            assertSame(i, SPAN_COUNT);
+        }
+    }
+
+    @Test
+    public void invalidateAll() {
+
+        warm();
+
+        for (int i = 0; i < mSizes.size(); i++) {
+            mSizes.set(i, 1 + (i % 3));
+        }
+        mCache.invalidateAll();
+
+        for (int i = 0; i < mSizes.size(); i++) {
+            assertSame(i, SPAN_COUNT);
+        }
+    }
+
+    @Test
+    public void spanCountChange() {
+
+        warm();
+
+        for (int i = 0; i < mSizes.size(); i++) {
+            assertSame(i, SPAN_COUNT + 2);
+        }
+    }
+
+    /**********************************************************************************************/
+
+    private void warm() {
+        for (int i = 0; i < mSizes.size(); i++) {
+            mCache.getSpanIndex(i, SPAN_COUNT);
+        }
+    }
+
+    private void assertSame(int position, int spanCount) {
+        assertEquals("span index at " + position, mDefault.getSpanIndex(position, spanCount), mCache.getSpanIndex(position, spanCount));
+        assertEquals("group index at " + position, mDefault.getSpanGroupIndex(position, spanCount), mCache.getSpanGroupIndex(position, spanCount));
+    }
+}
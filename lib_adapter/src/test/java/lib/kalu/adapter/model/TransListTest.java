@@ -0,0 +1,257 @@
+package lib.kalu.adapter.model;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * description: TransList树状数组索引和展开折叠数量
+ */
+public class TransListTest {
+
+    private final List<Object> mRoots = new ArrayList<>();
+    private TransList<Object> mList;
+
+    @Before
+    public void setUp() {
+
+        // 每个根节点3个子节点, 每个子节点2个叶子节点
+        mRoots.clear();
+        for (int i = 0; i < 20; i++) {
+            final Node root = new Node(0, "r" + i);
+            for (int j = 0; j < 3; j++) {
+                final Node child = new Node(1, "r" + i + "c" + j);
+                child.addModel("r" + i + "c" + j + "l0");
+                child.addModel("r" + i + "c" + j + "l1");
+                root.addModel(child);
+            }
+            mRoots.add(root);
+        }
+        mList = new TransList<>(mRoots);
+    }
+
+    @Test
+    public void collapsedByDefault() {
+        assertEquals(20, mList.size());
+        assertIndex();
+    }
+
+    @Test
+    public void expandCollapseCount() {
+
+        // 展开根节点: 3个子节点
+        assertEquals(3, mList.expand(0));
+        assertEquals(23, mList.size());
+
+        // 展开子节点: 2个叶子节点
+        assertEquals(2, mList.expand(1));
+        assertEquals(25, mList.size());
+        assertEquals("r0c0l0", mList.get(2));
+        assertEquals("r0c1", ((Node) mList.get(4)).name);
+
+        // 重复展开
+        assertEquals(0, mList.expand(0));
+        // 叶子节点
+        assertEquals(0, mList.expand(2));
+
+        // 折叠根节点, 子孙节点一起折叠
+        assertEquals(5, mList.collapse(0));
+        assertEquals(20, mList.size());
+        assertEquals(0, mList.collapse(0));
+
+        // 再次展开只显示子节点
+        assertEquals(3, mList.expand(0));
+        assertIndex();
+    }
+
+    @Test
+    public void expandAll() {
+
+        mList.expandAll(Integer.MAX_VALUE);
+        assertEquals(20 * 10, mList.size());
+        assertIndex();
+
+        mList.expandAll(1);
+        assertEquals(20 * 4, mList.size());
+        assertIndex();
+
+        mList.expandAll(0);
+        assertEquals(20, mList.size());
+        assertIndex();
+    }
+
+    @Test
+    public void randomExpandCollapse() {
+
+        final Random random = new Random(3);
+        for (int i = 0; i < 500; i++) {
+
+            final int position = random.nextInt(mList.size());
+            final int size = mList.size();
+            if (random.nextBoolean()) {
+                assertEquals(size + mList.expand(position), mList.size());
+            } else {
+                assertEquals(size - mList.collapse(position), mList.size());
+            }
+            assertIndex();
+        }
+    }
+
+    @Test
+    public void parentPosition() {
+
+        mList.expand(2);
+        mList.expand(3);
+        assertEquals(-1, mList.getParentPosition(2));
+        assertEquals(2, mList.getParentPosition(3));
+        assertEquals(3, mList.getParentPosition(4));
+        assertEquals(2, mList.getParentPosition(6));
+    }
+
+    @Test
+    public void addExpandedRoot() {
+
+        final Node root = new Node(0, "new");
+        root.addModel("new0");
+        root.addModel("new1");
+        root.setExpanded(true);
+
+        mList.add(root);
+        assertEquals(23, mList.size());
+        assertSame(root, mList.get(20));
+        assertEquals("new1", mList.get(22));
+
+        mList.addAll(Arrays.<Object>asList("a", "b"));
+        assertEquals(25, mList.size());
+        assertIndex();
+    }
+
+    @Test
+    public void insertBeforeSibling() {
+
+        mList.expand(0);
+
+        // 插入到子节点r0c1之前, 和r0c1同级
+        mList.add(2, "x");
+        assertEquals(24, mList.size());
+        assertEquals("x", mList.get(2));
+        assertEquals(4, ((Node) mRoots.get(0)).getModelList().size());
+        assertEquals(0, mList.getParentPosition(2));
+
+        // 插入到根节点r1之前
+        mList.addAll(5, Arrays.<Object>asList("y", "z"));
+        assertEquals("y", mList.get(5));
+        assertEquals(-1, mList.getParentPosition(5));
+        assertEquals(22, mList.getRoots().size());
+        assertIndex();
+    }
+
+    @Test
+    public void removeWithDescendant() {
+
+        mList.expand(0);
+        mList.expand(1);
+        assertEquals(25, mList.size());
+
+        // 删除展开的子节点, 叶子节点一起删除
+        assertEquals("r0c0", ((Node) mList.remove(1)).name);
+        assertEquals(22, mList.size());
+        assertEquals("r0c1", ((Node) mList.get(1)).name);
+
+        // 删除范围跨越子节点和根节点
+        mList.subList(2, 5).clear();
+        assertEquals(19, mList.size());
+        assertEquals("r0c1", ((Node) mList.get(1)).name);
+        assertEquals("r3", ((Node) mList.get(2)).name);
+        assertIndex();
+    }
+
+    @Test
+    public void setReplaceSubtree() {
+
+        mList.expand(0);
+
+        final Node node = new Node(1, "set");
+        node.addModel("s0");
+        node.setExpanded(true);
+        mList.set(1, node);
+
+        assertEquals(24, mList.size());
+        assertSame(node, mList.get(1));
+        assertEquals("s0", mList.get(2));
+        assertIndex();
+    }
+
+    @Test
+    public void outOfRange() {
+
+        assertEquals(0, mList.expand(-1));
+        assertEquals(0, mList.expand(20));
+        assertEquals(0, mList.collapse(-1));
+        assertEquals(0, mList.collapse(20));
+        assertEquals(-1, mList.getParentPosition(-1));
+        assertEquals(-1, mList.getParentPosition(20));
+        assertEquals(20, mList.size());
+    }
+
+    @Test
+    public void indexOfEquals() {
+
+        mList.expand(0);
+        mList.expand(1);
+
+        // 按equals查找, 不要求同一个对象
+        assertEquals(2, mList.indexOf(new String("r0c0l0")));
+        assertEquals(3, mList.lastIndexOf(new String("r0c0l1")));
+        assertEquals(-1, mList.positionOf(new String("r0c0l0")));
+        assertEquals(-1, mList.indexOf("r1c0l0"));
+
+        mList.add(0, "r0c0l0");
+        assertEquals(0, mList.indexOf("r0c0l0"));
+        assertEquals(3, mList.lastIndexOf("r0c0l0"));
+    }
+
+    /**********************************************************************************************/
+
+    /**
+     * get, indexOf和先序遍历的显示节点一致
+     */
+    private void assertIndex() {
+
+        final List<Object> snapshot = mList.snapshot();
+        assertEquals(snapshot.size(), mList.size());
+        for (int i = 0; i < snapshot.size(); i++) {
+            assertSame(snapshot.get(i), mList.get(i));
+            assertEquals(i, mList.indexOf(snapshot.get(i)));
+            assertEquals(i, mList.positionOf(snapshot.get(i)));
+        }
+    }
+
+    private static final class Node extends TransModel<Object> {
+
+        private final int level;
+        private final String name;
+
+        private Node(int level, String name) {
+            this.level = level;
+            this.name = name;
+        }
+
+        @Override
+        public int getLevel() {
+            return level;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}